@@ -0,0 +1,205 @@
+package br.com.unifalmg.application.benchmark;
+
+import br.com.unifalmg.application.Application;
+import br.com.unifalmg.application.dto.AuthorImportRow;
+import br.com.unifalmg.application.dto.AuthorSummary;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.entity.Author;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.pagination.BookSort;
+import br.com.unifalmg.application.pagination.KeysetPage;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.service.AuthorService;
+import br.com.unifalmg.application.service.BookService;
+import br.com.unifalmg.application.service.IdFilterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service and persistence benchmarks against an embedded H2 database in
+ * MySQL mode, seeded with {@code catalogSize} books (and a tenth as many
+ * authors). The entity cache is disabled so every call reaches the
+ * database. Run with {@code ./gradlew jmh}; sample mode reports latency
+ * percentiles and the gc profiler reports the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CatalogBenchmark {
+
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private AuthorService authorService;
+    private CatalogJdbcRepository catalogJdbcRepository;
+    private int authorCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench" + catalogSize
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;INIT=CREATE SCHEMA IF NOT EXISTS db",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "app.reactive.url=r2dbc:h2:mem:///bench" + catalogSize
+                                + "?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "app.reactive.username=sa",
+                        "spring.cache.type=none")
+                .run();
+        bookService = context.getBean(BookService.class);
+        authorService = context.getBean(AuthorService.class);
+        catalogJdbcRepository = context.getBean(CatalogJdbcRepository.class);
+        authorCount = Math.max(1, catalogSize / 10);
+        seed();
+        // Seeded behind the application, so the id filter has to see the new rows.
+        context.getBean(IdFilterService.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        List<AuthorImportRow> authors = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= authorCount; i++) {
+            authors.add(new AuthorImportRow("First " + i, "Last " + i, "Nationality " + (i % 20), i));
+            if (authors.size() == SEED_BATCH || i == authorCount) {
+                catalogJdbcRepository.insertAuthors(authors);
+                authors.clear();
+            }
+        }
+        List<BookImportRow> books = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= catalogSize; i++) {
+            books.add(new BookImportRow("Book " + i, 1900 + i % 120, 50 + i % 900, 1 + i % authorCount, i));
+            if (books.size() == SEED_BATCH || i == catalogSize) {
+                catalogJdbcRepository.insertBooks(books);
+                books.clear();
+            }
+        }
+    }
+
+    private int randomBookId() {
+        return ThreadLocalRandom.current().nextInt(catalogSize) + 1;
+    }
+
+    private int randomAuthorId() {
+        return ThreadLocalRandom.current().nextInt(authorCount) + 1;
+    }
+
+    private static Book newBook(Integer id) {
+        int n = ThreadLocalRandom.current().nextInt(1_000_000);
+        return Book.builder()
+                .id(id)
+                .title("Benchmark " + n)
+                .publication_year(1900 + n % 120)
+                .pages(50 + n % 900)
+                .build();
+    }
+
+    @Benchmark
+    public KeysetPage<BookSummary> getBooks() {
+        return bookService.getBooks(BookSort.ID, null, null, KeysetPage.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    public Book getBook() {
+        return bookService.getBook(randomBookId());
+    }
+
+    @Benchmark
+    public Book addBook() {
+        return bookService.add(newBook(null), randomAuthorId());
+    }
+
+    @Benchmark
+    public Book editBook() {
+        return bookService.editBook(newBook(randomBookId()), randomAuthorId());
+    }
+
+    @Benchmark
+    public void deleteBook(DeletableBook deletable) {
+        bookService.deleteBook(deletable.id, Boolean.TRUE);
+    }
+
+    @Benchmark
+    public KeysetPage<AuthorSummary> getAuthors() {
+        return authorService.getAuthors(null, null, KeysetPage.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    public Author getAuthor() {
+        return authorService.getAuthor(randomAuthorId());
+    }
+
+    @Benchmark
+    public Author addAuthor() {
+        return authorService.add(new Author(null, "First", "Last", "Brazil", null, null));
+    }
+
+    @Benchmark
+    public Author editAuthor() {
+        return authorService.editAuthor(new Author(randomAuthorId(), "First", "Last", "Brazil", null, null));
+    }
+
+    @Benchmark
+    public void deleteAuthor(DeletableAuthor deletable) {
+        authorService.deleteAuthor(deletable.id, Boolean.TRUE);
+    }
+
+    /**
+     * A fresh book for every delete invocation, inserted outside the measured call.
+     */
+    @State(Scope.Thread)
+    public static class DeletableBook {
+        int id;
+
+        @Setup(Level.Invocation)
+        public void insert(CatalogBenchmark benchmark) {
+            id = benchmark.catalogJdbcRepository.insertBooks(Collections.singletonList(
+                    new BookImportRow("Deletable", 2000, 100, benchmark.randomAuthorId(), 0))).get(0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DeletableAuthor {
+        int id;
+
+        @Setup(Level.Invocation)
+        public void insert(CatalogBenchmark benchmark) {
+            id = benchmark.catalogJdbcRepository.insertAuthors(Collections.singletonList(
+                    new AuthorImportRow("Deletable", "Author", "Brazil", 0))).get(0);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.unifalmg.application.benchmark;
+
+import br.com.unifalmg.application.Application;
+import br.com.unifalmg.application.dto.AuthorImportRow;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.service.IdFilterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Concurrency against latency of the blocking MVC pages and the reactive
+ * read API. The application runs on a random port with eight Tomcat threads
+ * and eight database connections on each stack; every invocation fires
+ * {@code concurrency} requests at once and waits for all of them, so the
+ * sampled time is the latency of the slowest request of a burst. Once the
+ * bursts outgrow the Tomcat pool the blocking requests queue for a thread
+ * while the reactive ones only queue for a connection.
+ * <p>
+ * The blocking side also renders a Thymeleaf page; compare how each side
+ * grows with concurrency rather than the absolute numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ReadApiLoadBenchmark {
+
+    private static final int CATALOG_SIZE = 10000;
+    private static final int AUTHOR_COUNT = 1000;
+    private static final int POOL_SIZE = 8;
+
+    @Param({"8", "64", "256"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + POOL_SIZE,
+                        "spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "INIT=CREATE SCHEMA IF NOT EXISTS db",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "app.reactive.url=r2dbc:h2:mem:///load?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "app.reactive.username=sa",
+                        "app.reactive.max-pool-size=" + POOL_SIZE,
+                        "spring.cache.type=none")
+                .run();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        seed(context.getBean(CatalogJdbcRepository.class));
+        // Seeded behind the application, so the id filter has to see the new rows.
+        context.getBean(IdFilterService.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static void seed(CatalogJdbcRepository catalogJdbcRepository) {
+        List<AuthorImportRow> authors = new ArrayList<>(AUTHOR_COUNT);
+        for (int i = 1; i <= AUTHOR_COUNT; i++) {
+            authors.add(new AuthorImportRow("First " + i, "Last " + i, "Nationality " + (i % 20), i));
+        }
+        catalogJdbcRepository.insertAuthors(authors);
+        List<BookImportRow> books = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 1; i <= CATALOG_SIZE; i++) {
+            books.add(new BookImportRow("Book " + i, 1900 + i % 120, 50 + i % 900, 1 + i % AUTHOR_COUNT, i));
+        }
+        catalogJdbcRepository.insertBooks(books);
+    }
+
+    private void burst(int range, IntFunction<String> path) {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            URI uri = URI.create(baseUrl + path.apply(ThreadLocalRandom.current().nextInt(range) + 1));
+            responses[i] = client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException(uri + " answered " + response.statusCode());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+    }
+
+    @Benchmark
+    public void blockingBook() {
+        burst(CATALOG_SIZE, id -> "/api/book/" + id);
+    }
+
+    @Benchmark
+    public void reactiveBook() {
+        burst(CATALOG_SIZE, id -> "/api/reactive/books/" + id);
+    }
+
+    @Benchmark
+    public void blockingAuthorBooks() {
+        burst(AUTHOR_COUNT, id -> "/api/author/" + id);
+    }
+
+    @Benchmark
+    public void reactiveAuthorBooks() {
+        burst(AUTHOR_COUNT, id -> "/api/reactive/authors/" + id + "/books");
+    }
+}
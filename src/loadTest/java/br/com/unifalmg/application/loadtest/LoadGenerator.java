@@ -0,0 +1,121 @@
+package br.com.unifalmg.application.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule whether or
+ * not earlier ones have answered, as independent users would. Latency is
+ * measured from the scheduled start, so a stall in the generator or a full
+ * connection queue counts against the server instead of silently lowering
+ * the load (no coordinated omission). Every request times out, and one still
+ * open when the drain gives up is recorded as an error with its latency up
+ * to then, so a hung server is never left out of the numbers.
+ */
+final class LoadGenerator {
+
+    /** Requests in flight beyond this are counted as failures, not sent. */
+    private static final int MAX_OUTSTANDING = 10000;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    static final class OperationStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder attempted = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        void record(long scheduled, long now, boolean failed) {
+            latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(now - scheduled));
+            if (failed) {
+                errors.increment();
+            }
+        }
+    }
+
+    /** A sent request; whoever removes it from the in-flight set records it. */
+    private static final class InFlight {
+        final long scheduled;
+        final OperationStats stats;
+
+        InFlight(long scheduled, OperationStats stats) {
+            this.scheduled = scheduled;
+            this.stats = stats;
+        }
+    }
+
+    static final class Result {
+        final Map<Traffic.Operation, OperationStats> stats;
+        final Duration elapsed;
+
+        Result(Map<Traffic.Operation, OperationStats> stats, Duration elapsed) {
+            this.stats = stats;
+            this.elapsed = elapsed;
+        }
+    }
+
+    private final HttpClient client;
+    private final Traffic traffic;
+    private final long intervalNanos;
+
+    LoadGenerator(HttpClient client, Traffic traffic, double rate) {
+        this.client = client;
+        this.traffic = traffic;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    }
+
+    Result run(Duration duration) throws InterruptedException {
+        Map<Traffic.Operation, OperationStats> stats = new EnumMap<>(Traffic.Operation.class);
+        for (Traffic.Operation operation : Traffic.Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        Set<InFlight> inFlight = ConcurrentHashMap.newKeySet();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Traffic.Planned planned = traffic.next();
+            OperationStats operationStats = stats.get(planned.operation);
+            operationStats.attempted.increment();
+            if (inFlight.size() >= MAX_OUTSTANDING) {
+                operationStats.errors.increment();
+                continue;
+            }
+            InFlight request = new InFlight(scheduled, operationStats);
+            inFlight.add(request);
+            client.sendAsync(planned.request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (inFlight.remove(request)) {
+                            operationStats.record(scheduled, System.nanoTime(),
+                                    failure != null || !traffic.completed(planned, response));
+                        }
+                    });
+        }
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        for (InFlight request : inFlight) {
+            if (inFlight.remove(request)) {
+                request.stats.record(request.scheduled, drainDeadline, true);
+            }
+        }
+        return new Result(stats, Duration.ofNanos(end - start));
+    }
+}
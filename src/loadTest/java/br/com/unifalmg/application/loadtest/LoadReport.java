@@ -0,0 +1,116 @@
+package br.com.unifalmg.application.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints throughput and latency percentiles per operation, writes each
+ * histogram as an .hgrm percentile distribution (milliseconds, readable by
+ * the HdrHistogram plotter) and lists the SLO violations.
+ */
+final class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadReport() {
+    }
+
+    static List<String> write(LoadGenerator.Result result, LoadTestSettings settings) throws IOException {
+        Files.createDirectories(settings.reportDir);
+        List<String> violations = new ArrayList<>();
+        Histogram total = new Histogram(3);
+        long totalAttempted = 0;
+        long totalErrors = 0;
+        double seconds = result.elapsed.toNanos() / 1e9;
+
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(settings.reportDir.resolve("summary.txt")),
+                true, "UTF-8")) {
+            String header = String.format(Locale.ROOT, "%-12s %8s %9s %9s %9s %9s %9s %7s",
+                    "operation", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+            print(summary, header);
+            for (Map.Entry<Traffic.Operation, LoadGenerator.OperationStats> entry : result.stats.entrySet()) {
+                Traffic.Operation operation = entry.getKey();
+                Histogram histogram = entry.getValue().latencyMicros;
+                long attempted = entry.getValue().attempted.sum();
+                long errors = entry.getValue().errors.sum();
+                total.add(histogram);
+                totalAttempted += attempted;
+                totalErrors += errors;
+                print(summary, line(operation.name(), histogram, errors, seconds));
+                writeHistogram(settings.reportDir.resolve(operation.name().toLowerCase(Locale.ROOT) + ".hgrm"),
+                        histogram);
+                check(operation.name(), histogram, attempted, errors, settings, violations);
+            }
+            print(summary, line("TOTAL", total, totalErrors, seconds));
+            if (total.getTotalCount() == 0) {
+                violations.add(String.format(Locale.ROOT, "no request completed out of %d attempted",
+                        totalAttempted));
+            }
+            writeHistogram(settings.reportDir.resolve("total.hgrm"), total);
+            violations.forEach(violation -> print(summary, "SLO violated: " + violation));
+        }
+        return violations;
+    }
+
+    private static void print(PrintStream summary, String line) {
+        System.out.println(line);
+        summary.println(line);
+    }
+
+    private static String line(String name, Histogram histogram, long errors, double seconds) {
+        return String.format(Locale.ROOT, "%-12s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                millis(histogram, 50.0), millis(histogram, 99.0), millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI, errors);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static void writeHistogram(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    /**
+     * An operation the mix never picked has nothing to check. The error rate
+     * is taken over attempted requests, including the ones never sent.
+     */
+    private static void check(String name, Histogram histogram, long attempted, long errors,
+                              LoadTestSettings settings, List<String> violations) {
+        if (attempted == 0) {
+            return;
+        }
+        if (histogram.getTotalCount() > 0) {
+            checkPercentile(name, histogram, 50.0, settings.sloP50, violations);
+            checkPercentile(name, histogram, 99.0, settings.sloP99, violations);
+            checkPercentile(name, histogram, 99.9, settings.sloP999, violations);
+        }
+        double errorRate = (double) errors / attempted;
+        if (errorRate > settings.maxErrorRate) {
+            violations.add(String.format(Locale.ROOT, "%s error rate %.4f > %.4f",
+                    name, errorRate, settings.maxErrorRate));
+        }
+    }
+
+    private static void checkPercentile(String name, Histogram histogram, double percentile, Duration slo,
+                                        List<String> violations) {
+        long micros = histogram.getValueAtPercentile(percentile);
+        if (micros > slo.toNanos() / 1000) {
+            violations.add(String.format(Locale.ROOT, "%s p%s %.2f ms > %d ms", name,
+                    percentile == 99.9 ? "999" : String.valueOf((int) percentile),
+                    micros / MICROS_PER_MILLI, slo.toMillis()));
+        }
+    }
+}
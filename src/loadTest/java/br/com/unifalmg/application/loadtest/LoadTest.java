@@ -0,0 +1,93 @@
+package br.com.unifalmg.application.loadtest;
+
+import br.com.unifalmg.application.Application;
+import br.com.unifalmg.application.dto.AuthorImportRow;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.service.IdFilterService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Entry point of {@code ./gradlew loadTest}: boots the application on a
+ * random port against an embedded H2 database in MySQL mode, seeds a
+ * synthetic catalog, drives the traffic mix at a fixed arrival rate and
+ * exits with status 1 when an SLO is exceeded, which fails the task.
+ */
+public final class LoadTest {
+
+    private static final int SEED_BATCH = 1000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = new LoadTestSettings();
+        int authorCount = Math.max(1, settings.catalogSize / 10);
+        List<String> violations;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "INIT=CREATE SCHEMA IF NOT EXISTS db",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "app.reactive.url=r2dbc:h2:mem:///loadtest?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "app.reactive.username=sa")
+                .run();
+        try {
+            seed(context.getBean(CatalogJdbcRepository.class), settings.catalogSize, authorCount);
+            // Seeded behind the application, so the id filter has to see the new rows.
+            context.getBean(IdFilterService.class).rebuild();
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+            LoadGenerator generator = new LoadGenerator(client,
+                    new Traffic("http://localhost:" + port, settings.catalogSize, authorCount, settings.requestTimeout),
+                    settings.rate);
+
+            System.out.printf(Locale.ROOT, "Load test: %d books, %.0f req/s, %s warmup, %s measured%n",
+                    settings.catalogSize, settings.rate, settings.warmup, settings.duration);
+            generator.run(settings.warmup);
+            violations = LoadReport.write(generator.run(settings.duration), settings);
+        } finally {
+            context.close();
+        }
+
+        if (!violations.isEmpty()) {
+            System.err.println("Latency SLOs exceeded, see " + settings.reportDir.toAbsolutePath());
+            System.exit(1);
+        }
+        System.out.println("All latency SLOs met");
+    }
+
+    private static void seed(CatalogJdbcRepository catalogJdbcRepository, int catalogSize, int authorCount) {
+        List<AuthorImportRow> authors = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= authorCount; i++) {
+            authors.add(new AuthorImportRow("First " + i, "Last " + i, "Nationality " + (i % 20), i));
+            if (authors.size() == SEED_BATCH || i == authorCount) {
+                catalogJdbcRepository.insertAuthors(authors);
+                authors.clear();
+            }
+        }
+        List<BookImportRow> books = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= catalogSize; i++) {
+            books.add(new BookImportRow("Book " + i, 1900 + i % 120, 50 + i % 900, 1 + i % authorCount, i));
+            if (books.size() == SEED_BATCH || i == catalogSize) {
+                catalogJdbcRepository.insertBooks(books);
+                books.clear();
+            }
+        }
+    }
+}
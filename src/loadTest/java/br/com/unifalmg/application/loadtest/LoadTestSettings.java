@@ -0,0 +1,35 @@
+package br.com.unifalmg.application.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Load test settings, read from loadtest.* system properties. The Gradle
+ * task passes every -PloadTest.&lt;name&gt; project property through, e.g.
+ * {@code ./gradlew loadTest -PloadTest.rate=400 -PloadTest.sloP99=150ms}.
+ */
+final class LoadTestSettings {
+
+    /** Books seeded before the run; a tenth as many authors. */
+    final int catalogSize = Integer.getInteger("loadtest.catalogSize", 10000);
+    /** Requests started per second, whatever the response times. */
+    final double rate = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+    final Duration warmup = duration("loadtest.warmup", "10s");
+    final Duration duration = duration("loadtest.duration", "60s");
+    /** Latency SLOs, checked for every operation of the mix. */
+    final Duration sloP50 = duration("loadtest.sloP50", "25ms");
+    final Duration sloP99 = duration("loadtest.sloP99", "250ms");
+    final Duration sloP999 = duration("loadtest.sloP999", "1s");
+    /** Share of failed requests (errors, unexpected statuses) tolerated per operation. */
+    final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.001"));
+    /** A request without a response by then fails, with this as its latency. */
+    final Duration requestTimeout = duration("loadtest.requestTimeout", "10s");
+    final Path reportDir = Paths.get(System.getProperty("loadtest.reportDir", "build/reports/loadtest"));
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
@@ -0,0 +1,161 @@
+package br.com.unifalmg.application.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * The request mix. Reads and edits go to the seeded books and authors;
+ * deletes only remove books the run itself added, so reads never hit a
+ * deleted id.
+ */
+final class Traffic {
+
+    enum Operation {
+        BOOK_LIST(20, 200),
+        BOOK(30, 200),
+        AUTHOR_LIST(10, 200),
+        AUTHOR(15, 200),
+        ADD_BOOK(10, 302),
+        EDIT_BOOK(10, 302),
+        DELETE_BOOK(5, 200);
+
+        final int weight;
+        final int expectedStatus;
+
+        Operation(int weight, int expectedStatus) {
+            this.weight = weight;
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    static final class Planned {
+        final Operation operation;
+        final HttpRequest request;
+
+        Planned(Operation operation, HttpRequest request) {
+            this.operation = operation;
+            this.request = request;
+        }
+    }
+
+    private static final String[] SORTS = {"id", "title", "year"};
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            total += operation.weight;
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    private final String baseUrl;
+    private final int catalogSize;
+    private final int authorCount;
+    private final Duration timeout;
+    private final Queue<Integer> added = new ConcurrentLinkedQueue<>();
+
+    Traffic(String baseUrl, int catalogSize, int authorCount, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.catalogSize = catalogSize;
+        this.authorCount = authorCount;
+        this.timeout = timeout;
+    }
+
+    Planned next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(TOTAL_WEIGHT);
+        Operation operation = Operation.BOOK_LIST;
+        for (Operation candidate : Operation.values()) {
+            if (pick < candidate.weight) {
+                operation = candidate;
+                break;
+            }
+            pick -= candidate.weight;
+        }
+
+        switch (operation) {
+            case BOOK_LIST:
+                return get(operation, "/api/book/books?sort=" + SORTS[random.nextInt(SORTS.length)]);
+            case BOOK:
+                return get(operation, "/api/book/" + bookId(random));
+            case AUTHOR_LIST:
+                return get(operation, "/api/author/authors");
+            case AUTHOR:
+                return get(operation, "/api/author/" + authorId(random));
+            case EDIT_BOOK:
+                return post(operation, "/api/book/editBook", Map.of(
+                        "id", String.valueOf(bookId(random)),
+                        "title", "Edited " + random.nextInt(1_000_000),
+                        "publication_year", String.valueOf(1900 + random.nextInt(120)),
+                        "pages", String.valueOf(50 + random.nextInt(900)),
+                        "idAuthor", String.valueOf(authorId(random))));
+            case DELETE_BOOK:
+                Integer id = added.poll();
+                if (id != null) {
+                    return get(operation, "/api/book/delete/" + id + "?confirm-deletion=true");
+                }
+                // Nothing of ours left to delete: add a book instead.
+            default:
+                return post(Operation.ADD_BOOK, "/api/book/addbook", Map.of(
+                        "title", "Load test " + random.nextInt(1_000_000),
+                        "publication_year", String.valueOf(1900 + random.nextInt(120)),
+                        "pages", String.valueOf(50 + random.nextInt(900)),
+                        "idAuthor", String.valueOf(authorId(random))));
+        }
+    }
+
+    /**
+     * Whether the response is the one the operation should get. Remembers
+     * the ids of added books for later deletes.
+     */
+    boolean completed(Planned planned, HttpResponse<?> response) {
+        if (response.statusCode() != planned.operation.expectedStatus) {
+            return false;
+        }
+        if (planned.operation == Operation.ADD_BOOK) {
+            String location = response.headers().firstValue("Location").orElse("");
+            try {
+                added.offer(Integer.valueOf(location.substring(location.lastIndexOf('/') + 1)));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bookId(ThreadLocalRandom random) {
+        return random.nextInt(catalogSize) + 1;
+    }
+
+    private int authorId(ThreadLocalRandom random) {
+        return random.nextInt(authorCount) + 1;
+    }
+
+    private Planned get(Operation operation, String path) {
+        return new Planned(operation, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .GET()
+                .build());
+    }
+
+    private Planned post(Operation operation, String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(field -> field.getKey() + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return new Planned(operation, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+}
@@ -2,10 +2,23 @@ package br.com.unifalmg.application;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableAsync
+@EnableScheduling
+// Caching wraps the transaction: a cache hit opens no transaction (and takes
+// no connection), and evictions run after the commit.
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 @EnableJpaRepositories
-@SpringBootApplication
+// The reactive read API builds its own connection pool (see ReactiveReadConfig).
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ConfigurationPropertiesScan
 public class Application {
 
     public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package br.com.unifalmg.application.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.change-feed")
+public class ChangeFeedProperties {
+    /**
+     * Recent changes kept for subscribers that reconnect with the id of the
+     * last event they saw.
+     */
+    private int history = 1000;
+    /**
+     * Changes queued per subscriber; a subscriber that falls further behind
+     * is disconnected and has to resume.
+     */
+    private int subscriberBuffer = 256;
+    /**
+     * A write to a subscriber blocked longer than this (a client that stopped
+     * reading) disconnects it.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    private Duration timeout = Duration.ofMinutes(30);
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
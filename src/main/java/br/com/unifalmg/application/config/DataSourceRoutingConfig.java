@@ -0,0 +1,68 @@
+package br.com.unifalmg.application.config;
+
+import br.com.unifalmg.application.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Active when at least one replica is configured under app.datasource.
+ * spring.datasource keeps describing the primary; the application sees a
+ * single routing DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceProperties primaryProperties,
+                                                      DataSourceRoutingProperties properties) {
+        List<DataSource> replicas = properties.getReplicas().stream()
+                .map(replica -> DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(primaryProperties.determineDriverClassName())
+                        .url(replica.getUrl())
+                        .username(replica.getUsername())
+                        .password(replica.getPassword())
+                        .build())
+                .collect(Collectors.toList());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Configuration
+    @AllArgsConstructor
+    static class ReplicaHealthCheck {
+        private final ReplicaRoutingDataSource routingDataSource;
+        private final DataSourceRoutingProperties properties;
+
+        @Scheduled(fixedDelayString = "${app.datasource.health-check-interval:PT10S}")
+        public void checkReplicas() {
+            routingDataSource.checkReplicas((int) properties.getHealthCheckTimeout().toSeconds());
+        }
+    }
+}
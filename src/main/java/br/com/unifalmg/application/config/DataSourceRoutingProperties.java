@@ -0,0 +1,34 @@
+package br.com.unifalmg.application.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource")
+public class DataSourceRoutingProperties {
+    /**
+     * Read replicas for read-only transactions. Empty means everything uses
+     * spring.datasource.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+    /**
+     * How long reads stay on the primary after a write commits; zero turns
+     * it off.
+     */
+    private Duration readYourWritesWindow = Duration.ZERO;
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
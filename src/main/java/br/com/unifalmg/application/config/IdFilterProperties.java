@@ -0,0 +1,25 @@
+package br.com.unifalmg.application.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.id-filter")
+public class IdFilterProperties {
+    /**
+     * Turn off when rows are written behind the application (another
+     * instance, manual inserts): their ids would be answered 404 until the
+     * next rebuild.
+     */
+    private boolean enabled = true;
+    private double falsePositiveRate = 0.01;
+    /**
+     * How often the filters are loaded again, dropping deleted ids and
+     * picking up rows the application did not write.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+}
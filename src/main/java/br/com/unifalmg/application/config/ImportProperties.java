@@ -0,0 +1,16 @@
+package br.com.unifalmg.application.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+    /**
+     * Rows written per JDBC batch and per transaction.
+     */
+    private int batchSize = 1000;
+    private int maxReportedErrors = 100;
+}
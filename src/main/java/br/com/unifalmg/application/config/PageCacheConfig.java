@@ -0,0 +1,28 @@
+package br.com.unifalmg.application.config;
+
+import br.com.unifalmg.application.view.RenderedPage;
+import br.com.unifalmg.application.view.RenderedPageCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The rendered pages share the cache manager (so they show up in the caches
+ * actuator endpoint and the cache metrics) but are bounded by weight rather
+ * than by the entry count of the entity caches.
+ */
+@Configuration
+public class PageCacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> pageCacheCustomizer(PageCacheProperties properties) {
+        return cacheManager -> cacheManager.registerCustomCache(RenderedPageCache.CACHE_NAME,
+                Caffeine.newBuilder()
+                        .maximumWeight(properties.getMaxSize().toBytes())
+                        .weigher((Object key, Object page) -> 2 * ((RenderedPage) page).getHtml().length())
+                        .recordStats()
+                        .build());
+    }
+}
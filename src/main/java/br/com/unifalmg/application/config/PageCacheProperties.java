@@ -0,0 +1,17 @@
+package br.com.unifalmg.application.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.page-cache")
+public class PageCacheProperties {
+    /**
+     * Memory budget of the rendered page cache, counted as two bytes per
+     * character of HTML.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+}
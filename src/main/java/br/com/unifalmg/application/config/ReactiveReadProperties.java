@@ -0,0 +1,20 @@
+package br.com.unifalmg.application.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.reactive")
+public class ReactiveReadProperties {
+    /**
+     * R2DBC url of the catalog database, the same schema spring.datasource
+     * points at.
+     */
+    private String url;
+    private String username;
+    private String password;
+    private int initialPoolSize = 5;
+    private int maxPoolSize = 20;
+}
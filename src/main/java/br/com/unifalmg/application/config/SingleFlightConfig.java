@@ -0,0 +1,28 @@
+package br.com.unifalmg.application.config;
+
+import br.com.unifalmg.application.entity.Author;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+/**
+ * Coalescing of the single book and author lookups, used by the services
+ * between the entity cache and the database.
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<Integer, Optional<Book>> bookLookups(MeterRegistry registry) {
+        return new SingleFlight<>("book", registry);
+    }
+
+    @Bean
+    public SingleFlight<Integer, Optional<Author>> authorLookups(MeterRegistry registry) {
+        return new SingleFlight<>("author", registry);
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.unifalmg.application.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.write-behind")
+public class WriteBehindProperties {
+    /**
+     * When on, new books are queued and written in batches by a background
+     * writer instead of being saved on the request thread.
+     */
+    private boolean enabled = false;
+    /**
+     * Books waiting to be written; submissions beyond it are refused.
+     */
+    private int queueCapacity = 10000;
+    private int batchSize = 500;
+    /**
+     * Longest a queued book waits for its batch to fill up.
+     */
+    private Duration maxDelay = Duration.ofMillis(200);
+    /**
+     * How long the outcome of a submission can be polled.
+     */
+    private Duration statusRetention = Duration.ofMinutes(10);
+}
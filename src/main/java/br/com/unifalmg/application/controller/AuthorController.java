@@ -1,14 +1,26 @@
 package br.com.unifalmg.application.controller;
 
+import br.com.unifalmg.application.dto.AuthorSummary;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.dto.LookupResult;
 import br.com.unifalmg.application.entity.Author;
+import br.com.unifalmg.application.event.CatalogVersion;
+import br.com.unifalmg.application.pagination.KeysetPage;
 import br.com.unifalmg.application.service.AuthorService;
+import br.com.unifalmg.application.view.RenderedPageCache;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Log4j2
@@ -18,13 +30,39 @@ import java.util.Optional;
 public class AuthorController {
 
     private final AuthorService authorService;
+    private final CatalogVersion catalogVersion;
+    private final RenderedPageCache renderedPageCache;
 
 
     @GetMapping("/authors")
-    public String author(Model model) {
-        List<Author> authors = authorService.getAuthors();
-        model.addAttribute("authors", authors);
-        return "authors";
+    public ResponseEntity<String> author(@RequestParam(name = "after", required = false) String after,
+                                         @RequestParam(name = "before", required = false) String before,
+                                         @RequestParam(name = "size", required = false) Integer size,
+                                         @RequestParam(name = "lastName", required = false) String lastName,
+                                         @RequestParam(name = "nationality", required = false) String nationality,
+                                         ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, catalogVersion.getTag(), catalogVersion.getLastModified())) {
+            return null;
+        }
+        String name = StringUtils.hasText(lastName) ? lastName : null;
+        String country = StringUtils.hasText(nationality) ? nationality : null;
+        String html = renderedPageCache.render("authors", request, () -> {
+            KeysetPage<AuthorSummary> page;
+            if (Objects.nonNull(name)) {
+                page = authorService.getAuthorsByLastName(name, after, before, size);
+            } else if (Objects.nonNull(country)) {
+                page = authorService.getAuthorsByNationality(country, after, before, size);
+            } else {
+                page = authorService.getAuthors(after, before, size);
+            }
+            Map<String, Object> model = new HashMap<>();
+            model.put("authors", page.getContent());
+            model.put("page", page);
+            model.put("lastName", name);
+            model.put("nationality", country);
+            return model;
+        }, name, country, after, before, KeysetPage.clampSize(size));
+        return ResponseEntity.ok().contentType(RenderedPageCache.HTML).body(html);
     }
 
     @GetMapping("/authorSearch")
@@ -38,11 +76,31 @@ public class AuthorController {
         return "redirect:/api/author/" + id;
     }
 
+    /**
+     * Several authors at once as JSON, like /api/book/batch.
+     */
+    @GetMapping("/batch")
+    @ResponseBody
+    public List<LookupResult<AuthorSummary>> batch(@RequestParam(name = "ids") String ids) {
+        return authorService.lookupAuthors(LookupIds.parse(ids));
+    }
+
     @GetMapping("/{id}")
     public String showAuthor(@PathVariable("id") Integer id,
-                           Model model) {
+                             @RequestParam(name = "after", required = false) String after,
+                             @RequestParam(name = "before", required = false) String before,
+                             @RequestParam(name = "size", required = false) Integer size,
+                             ServletWebRequest request,
+                             Model model) {
+        // The page lists the author's books too, so it follows the catalog token.
+        if (ConditionalGet.notModified(request, catalogVersion.getTag(), catalogVersion.getLastModified())) {
+            return null;
+        }
         Author author = authorService.getAuthor(id);
+        KeysetPage<BookSummary> books = authorService.getAuthorBooks(id, after, before, size);
         model.addAttribute("author", author);
+        model.addAttribute("books", books.getContent());
+        model.addAttribute("page", books);
         return "showauthor";
     }
 
@@ -59,7 +117,10 @@ public class AuthorController {
     }
 
     @GetMapping("/editAuthor")
-    public String editAuthorr(Author author) {
+    public String editAuthorr(Author author, Model model) {
+        if (Objects.nonNull(author.getId())) {
+            model.addAttribute("author", authorService.getAuthor(author.getId()));
+        }
         return "editAuthor";
     }
 
@@ -87,19 +148,4 @@ public class AuthorController {
         authorService.deleteAuthor(id, confirmDeletion);
         return "delecaoRealizada";
     }
-
-/*
-    @GetMapping(value = "/teste")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Author> getAuthors() {
-
-        return authorService.getAuthors();
-    }
-
-    @GetMapping(value = "/{id}/books")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Book> getStudentsCourse(@PathVariable Integer id) {
-        return authorService.getBooksAuthor(id);
-    }
-    */
 }
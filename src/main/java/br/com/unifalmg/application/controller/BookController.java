@@ -1,15 +1,38 @@
 package br.com.unifalmg.application.controller;
 
+import br.com.unifalmg.application.dto.BookDetail;
+import br.com.unifalmg.application.dto.BookFacets;
+import br.com.unifalmg.application.dto.BookFilter;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.dto.IngestStatus;
+import br.com.unifalmg.application.dto.LookupResult;
 import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.event.CatalogVersion;
+import br.com.unifalmg.application.pagination.BookSort;
+import br.com.unifalmg.application.pagination.KeysetPage;
+import br.com.unifalmg.application.service.BookIngestService;
 import br.com.unifalmg.application.service.BookService;
+import br.com.unifalmg.application.service.StatisticsService;
+import br.com.unifalmg.application.view.ChunkedPageRenderer;
+import br.com.unifalmg.application.view.RenderedPageCache;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletResponse;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Log4j2
@@ -18,13 +41,79 @@ import java.util.Optional;
 @RequestMapping("/api/book")
 public class BookController {
     private final BookService bookService;
+    private final CatalogVersion catalogVersion;
+    private final RenderedPageCache renderedPageCache;
+    private final ChunkedPageRenderer chunkedPageRenderer;
+    private final BookIngestService bookIngestService;
+    private final StatisticsService statisticsService;
 
     @GetMapping("/books")
-    @ResponseStatus(HttpStatus.OK)
-    public String book(Model model) {
-        List<Book> books = bookService.getBooks();
-        model.addAttribute("books", books);
-        return "books";
+    public ResponseEntity<String> book(@RequestParam(name = "sort", defaultValue = "id") String sort,
+                                       @RequestParam(name = "after", required = false) String after,
+                                       @RequestParam(name = "before", required = false) String before,
+                                       @RequestParam(name = "size", required = false) Integer size,
+                                       @RequestParam(name = "year", required = false) Integer year,
+                                       @RequestParam(name = "title", required = false) String title,
+                                       @RequestParam(name = "nationality", required = false) String nationality,
+                                       @RequestParam(name = "minYear", required = false) Integer minYear,
+                                       @RequestParam(name = "maxYear", required = false) Integer maxYear,
+                                       @RequestParam(name = "pages", required = false) Integer pages,
+                                       ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, catalogVersion.getTag(), catalogVersion.getLastModified())) {
+            return null;
+        }
+        BookFilter filter = BookFilter.of(title, year, nationality, minYear, maxYear, pages);
+        BookSort bookSort = filter.isEmpty() ? BookSort.fromParameter(sort)
+                : filter.hasOnlyTitle() ? BookSort.TITLE : BookSort.ID;
+        String html = renderedPageCache.render("books", request, () -> {
+            KeysetPage<BookSummary> page = listing(bookSort, filter, after, before, size);
+            // Without any filter the counts are those of the whole catalog,
+            // which the statistics counters keep: no query.
+            BookFacets facets = filter.isEmpty() ? BookFacets.of(statisticsService.getStatistics())
+                    : bookService.getBookFacets(filter);
+            Map<String, Object> model = new HashMap<>();
+            model.put("books", page.getContent());
+            model.put("page", page);
+            model.put("sort", bookSort.getParameter());
+            model.put("filter", filter);
+            model.put("facets", facets);
+            return model;
+        }, bookSort, filter, after, before, KeysetPage.clampSize(size));
+        return ResponseEntity.ok().contentType(RenderedPageCache.HTML).body(html);
+    }
+
+    /**
+     * A title or a year alone keeps its own indexed listing; any other
+     * combination of filters goes through the specification query.
+     */
+    private KeysetPage<BookSummary> listing(BookSort bookSort, BookFilter filter,
+                                            String after, String before, Integer size) {
+        if (filter.isEmpty()) {
+            return bookService.getBooks(bookSort, after, before, size);
+        }
+        if (filter.hasOnlyYear()) {
+            return bookService.getBooksByYear(filter.getYear(), after, before, size);
+        }
+        if (filter.hasOnlyTitle()) {
+            return bookService.getBooksByTitle(filter.getTitle(), after, before, size);
+        }
+        return bookService.getBooksByFilter(filter, after, before, size);
+    }
+
+    /**
+     * The whole catalog on one page, streamed: rows are rendered and flushed
+     * in chunks as the database cursor produces them.
+     */
+    @GetMapping("/books/all")
+    public void allBooks(@RequestParam(name = "sort", defaultValue = "id") String sort,
+                         ServletWebRequest request,
+                         HttpServletResponse response) {
+        if (ConditionalGet.notModified(request, catalogVersion.getTag(), catalogVersion.getLastModified())) {
+            return;
+        }
+        BookSort bookSort = BookSort.fromParameter(sort);
+        bookService.streamBooks(bookSort, rows -> chunkedPageRenderer.render("allBooks", request, response,
+                "books", rows, Collections.singletonMap("sort", bookSort.getParameter())));
     }
 
     @GetMapping("/bookSearch")
@@ -38,9 +127,24 @@ public class BookController {
         return "redirect:/api/book/" + id;
     }
 
+    /**
+     * Several books at once as JSON, e.g. /api/book/batch?ids=1,2,3. Ids
+     * that do not exist come back with status NOT_FOUND.
+     */
+    @GetMapping("/batch")
+    @ResponseBody
+    public List<LookupResult<BookDetail>> batch(@RequestParam(name = "ids") String ids) {
+        return bookService.lookupBooks(LookupIds.parse(ids));
+    }
+
     @GetMapping("/{id}")
     public String showBook(@PathVariable("id") Integer id,
+                           ServletWebRequest request,
                            Model model) {
+        String tag = bookService.getBookTag(id);
+        if (ConditionalGet.notModified(request, Objects.isNull(tag) ? null : catalogVersion.tagOf(tag))) {
+            return null;
+        }
         Book book = bookService.getBook(id);
         model.addAttribute("book", book);
         return "showbook";
@@ -53,12 +157,42 @@ public class BookController {
 
     @PostMapping("/addbook")
     public String newBook(@ModelAttribute("book") Book book, Integer idAuthor) {
+        if (bookIngestService.isEnabled()) {
+            IngestStatus status = bookIngestService.submit(book, idAuthor);
+            return "redirect:/api/book/ingest/" + status.getToken();
+        }
         Book addedBook = bookService.add(book, idAuthor);
         return "redirect:/api/book/" + addedBook.getId();
     }
 
+    /**
+     * Write-behind submission: answers 202 with a token to poll instead of
+     * waiting for the insert.
+     */
+    @PostMapping("/ingest")
+    @ResponseBody
+    public ResponseEntity<IngestStatus> ingestBook(@ModelAttribute("book") Book book, Integer idAuthor) {
+        if (!bookIngestService.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Write-behind mode is disabled.");
+        }
+        IngestStatus status = bookIngestService.submit(book, idAuthor);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/book/ingest/" + status.getToken()))
+                .body(status);
+    }
+
+    @GetMapping("/ingest/{token}")
+    @ResponseBody
+    public IngestStatus ingestStatus(@PathVariable("token") String token) {
+        return bookIngestService.getStatus(token).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired token."));
+    }
+
     @GetMapping("/editBook")
-    public String editBookk(Book book) {
+    public String editBookk(Book book, Model model) {
+        if (Objects.nonNull(book.getId())) {
+            model.addAttribute("book", bookService.getBook(book.getId()));
+        }
         return "editBook";
     }
 
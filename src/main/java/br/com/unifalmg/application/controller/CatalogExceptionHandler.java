@@ -0,0 +1,58 @@
+package br.com.unifalmg.application.controller;
+
+import br.com.unifalmg.application.exception.AuthorNotFoundException;
+import br.com.unifalmg.application.exception.BookNotFoundException;
+import br.com.unifalmg.application.exception.IngestQueueFullException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+@Log4j2
+@ControllerAdvice
+public class CatalogExceptionHandler {
+
+    /**
+     * Lookups of ids that do not exist. Most come from scrapers, so this
+     * logs nothing and answers a short text body instead of the error page.
+     */
+    @ExceptionHandler({BookNotFoundException.class, AuthorNotFoundException.class})
+    public ResponseEntity<String> notFound(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    /**
+     * Arguments the service refused, such as too many ids in a batch lookup
+     * or a malformed id.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    /**
+     * An edit submitted with a stale version lost the race against another
+     * writer; the client has to reload the form and try again.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> conflict(ObjectOptimisticLockingFailureException e) {
+        log.info("Edição desatualizada rejeitada: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("The record was changed by someone else. Reload it and try again.");
+    }
+
+    /**
+     * Backpressure of the write-behind queue: the client should slow down and
+     * submit the book again shortly.
+     */
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<String> queueFull(IngestQueueFullException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.unifalmg.application.controller;
+
+import br.com.unifalmg.application.event.ChangeFeed;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Objects;
+
+@Controller
+@AllArgsConstructor
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+
+    /**
+     * Book and author changes as server-sent events. EventSource clients
+     * resume with the Last-Event-ID header on their own; others can pass the
+     * last id they saw as "since".
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+                              @RequestParam(name = "since", required = false) String since) {
+        return changeFeed.subscribe(Objects.nonNull(lastEventId) ? lastEventId : since);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.unifalmg.application.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Objects;
+
+/**
+ * Validator handling shared by the rendered pages. Responses are marked
+ * no-cache so that browsers and the proxy always revalidate instead of
+ * guessing a freshness lifetime from Last-Modified; the revalidation is
+ * answered with 304 before the page is loaded or rendered.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static boolean notModified(ServletWebRequest request, String etag) {
+        if (Objects.isNull(etag)) {
+            return false;
+        }
+        noCache(request);
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * When both validators are present the ETag wins; Last-Modified only has
+     * a one-second resolution.
+     */
+    static boolean notModified(ServletWebRequest request, String etag, long lastModified) {
+        noCache(request);
+        return request.checkNotModified(etag, lastModified);
+    }
+
+    private static void noCache(ServletWebRequest request) {
+        if (Objects.nonNull(request.getResponse())) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+    }
+}
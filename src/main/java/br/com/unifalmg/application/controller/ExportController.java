@@ -0,0 +1,35 @@
+package br.com.unifalmg.application.controller;
+
+import br.com.unifalmg.application.service.CatalogFormat;
+import br.com.unifalmg.application.service.ExportService;
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Log4j2
+@Controller
+@AllArgsConstructor
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/books")
+    public void exportBooks(@RequestParam(name = "format", defaultValue = "jsonl") String format,
+                            HttpServletResponse response) throws IOException {
+        CatalogFormat exportFormat = CatalogFormat.fromParameter(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"books." + exportFormat.getExtension() + "\"");
+        long rows = exportService.exportBooks(exportFormat, response.getOutputStream());
+        log.info("Exportados {} livros em {}", rows, exportFormat);
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.unifalmg.application.controller;
+
+import br.com.unifalmg.application.dto.ImportResult;
+import br.com.unifalmg.application.service.CatalogFormat;
+import br.com.unifalmg.application.service.ImportService;
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Bulk uploads are sent as the raw request body (CSV with a header line,
+ * JSON Lines or a JSON array) so they are streamed instead of buffered.
+ */
+@Log4j2
+@Controller
+@AllArgsConstructor
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private final ImportService importService;
+
+    @PostMapping("/books")
+    @ResponseBody
+    public ImportResult importBooks(@RequestParam(name = "format", required = false) String format,
+                                    HttpServletRequest request) throws IOException {
+        ImportResult result = importService.importBooks(request.getInputStream(), formatOf(format, request));
+        log.info("Importados {} livros, {} rejeitados", result.getImported(), result.getRejected());
+        return result;
+    }
+
+    @PostMapping("/authors")
+    @ResponseBody
+    public ImportResult importAuthors(@RequestParam(name = "format", required = false) String format,
+                                      HttpServletRequest request) throws IOException {
+        ImportResult result = importService.importAuthors(request.getInputStream(), formatOf(format, request));
+        log.info("Importados {} autores, {} rejeitados", result.getImported(), result.getRejected());
+        return result;
+    }
+
+    private static CatalogFormat formatOf(String format, HttpServletRequest request) {
+        return Objects.nonNull(format) ? CatalogFormat.fromParameter(format)
+                : CatalogFormat.fromContentType(request.getContentType());
+    }
+}
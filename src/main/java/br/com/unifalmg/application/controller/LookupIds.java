@@ -0,0 +1,32 @@
+package br.com.unifalmg.application.controller;
+
+import br.com.unifalmg.application.dto.LookupResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ids parameter of the batch lookups, e.g. ids=1,2,3. Read as text and
+ * split at most {@link LookupResult#MAX_IDS} times, so an oversized request
+ * is refused before a list of its size is ever built.
+ */
+final class LookupIds {
+
+    private LookupIds() {
+    }
+
+    static List<Integer> parse(String ids) {
+        String[] values = ids.split(",", LookupResult.MAX_IDS + 1);
+        if (values.length > LookupResult.MAX_IDS) {
+            throw new IllegalArgumentException(
+                    String.format("At most %d ids can be looked up at once.", LookupResult.MAX_IDS));
+        }
+        List<Integer> parsed = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (!value.isBlank()) {
+                parsed.add(Integer.valueOf(value.trim()));
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.unifalmg.application.controller;
+
+import br.com.unifalmg.application.dto.AuthorSummary;
+import br.com.unifalmg.application.dto.BookDetail;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.pagination.KeysetPage;
+import br.com.unifalmg.application.service.ReactiveCatalogService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only JSON API over R2DBC. Spring MVC handles the returned Monos as
+ * async requests, so the Tomcat thread goes back to the pool while the query
+ * runs and the response is written when the result arrives.
+ */
+@Controller
+@AllArgsConstructor
+@RequestMapping("/api/reactive")
+public class ReactiveCatalogController {
+
+    private final ReactiveCatalogService reactiveCatalogService;
+
+    @GetMapping("/books/{id}")
+    @ResponseBody
+    public Mono<BookDetail> book(@PathVariable("id") Integer id) {
+        return reactiveCatalogService.getBook(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("No book found for id %d", id))));
+    }
+
+    @GetMapping("/books")
+    @ResponseBody
+    public Mono<KeysetPage<BookSummary>> books(@RequestParam(name = "after", required = false) String after,
+                                               @RequestParam(name = "before", required = false) String before,
+                                               @RequestParam(name = "size", required = false) Integer size) {
+        return reactiveCatalogService.getBooks(after, before, size);
+    }
+
+    @GetMapping("/authors/{id}")
+    @ResponseBody
+    public Mono<AuthorSummary> author(@PathVariable("id") Integer id) {
+        return reactiveCatalogService.getAuthor(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("No author found for id %d", id))));
+    }
+
+    @GetMapping("/authors")
+    @ResponseBody
+    public Mono<KeysetPage<AuthorSummary>> authors(@RequestParam(name = "after", required = false) String after,
+                                                   @RequestParam(name = "before", required = false) String before,
+                                                   @RequestParam(name = "size", required = false) Integer size) {
+        return reactiveCatalogService.getAuthors(after, before, size);
+    }
+
+    @GetMapping("/authors/{id}/books")
+    @ResponseBody
+    public Mono<KeysetPage<BookSummary>> authorBooks(@PathVariable("id") Integer id,
+                                                     @RequestParam(name = "after", required = false) String after,
+                                                     @RequestParam(name = "before", required = false) String before,
+                                                     @RequestParam(name = "size", required = false) Integer size) {
+        return reactiveCatalogService.getAuthorBooks(id, after, before, size);
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.unifalmg.application.controller;
+
+import br.com.unifalmg.application.search.SearchResults;
+import br.com.unifalmg.application.service.SearchService;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+@AllArgsConstructor
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public String search(@RequestParam(name = "q", defaultValue = "") String query,
+                         @RequestParam(name = "page", defaultValue = "0") Integer page,
+                         @RequestParam(name = "size", defaultValue = "20") Integer size,
+                         Model model) {
+        SearchResults results = searchService.search(query, page, size);
+        model.addAttribute("q", query);
+        model.addAttribute("results", results);
+        return "search";
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.unifalmg.application.controller;
+
+import br.com.unifalmg.application.dto.CatalogStatistics;
+import br.com.unifalmg.application.service.StatisticsService;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+@AllArgsConstructor
+@RequestMapping("/api/statistics")
+public class StatisticsController {
+
+    private final StatisticsService statisticsService;
+
+    @GetMapping
+    @ResponseBody
+    public CatalogStatistics statistics() {
+        return statisticsService.getStatistics();
+    }
+}
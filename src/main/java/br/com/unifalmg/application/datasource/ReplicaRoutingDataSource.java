@@ -0,0 +1,129 @@
+package br.com.unifalmg.application.datasource;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replicas, round-robin over the ones
+ * that passed the last health check, and everything else to the primary.
+ * When no replica is healthy reads go to the primary too.
+ *
+ * <p>After a write commits, reads stay on the primary for the configured
+ * read-your-writes window (process-wide), so a redirect after a form post
+ * does not read from a replica that has not caught up yet.
+ *
+ * <p>The read-only flag is only known once the transaction has started, so
+ * this must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that fetches the physical connection on the first statement.
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas = new HashMap<>();
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final Set<String> healthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long readYourWritesNanos;
+    private final AtomicLong primaryReadsUntil = new AtomicLong(System.nanoTime());
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration readYourWritesWindow) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            this.replicas.put(key, replicas.get(i));
+            replicaKeys.add(key);
+            healthy.add(key);
+        }
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite();
+            return PRIMARY;
+        }
+        if (System.nanoTime() - primaryReadsUntil.get() < 0) {
+            return PRIMARY;
+        }
+        for (int i = 0; i < replicaKeys.size(); i++) {
+            String key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+            if (healthy.contains(key)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Starts the read-your-writes window when a read-write transaction
+     * commits. Statements outside of a transaction are not counted: every
+     * write path in the application is transactional.
+     */
+    private void recordWrite() {
+        if (readYourWritesNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                primaryReadsUntil.set(System.nanoTime() + readYourWritesNanos);
+            }
+        });
+    }
+
+    /**
+     * Validates one connection per replica and takes the ones that fail out
+     * of the rotation until they pass again.
+     */
+    public void checkReplicas(int timeoutSeconds) {
+        replicas.forEach((key, replica) -> {
+            boolean up;
+            try (Connection connection = replica.getConnection()) {
+                up = connection.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                up = false;
+            }
+            if (up && healthy.add(key)) {
+                log.info("Réplica {} voltou ao rodízio de leitura", key);
+            } else if (!up && healthy.remove(key)) {
+                log.warn("Réplica {} falhou na verificação de saúde, leituras passam para as outras réplicas", key);
+            }
+        });
+    }
+
+    public Set<String> getHealthyReplicas() {
+        return Set.copyOf(healthy);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable) {
+                ((AutoCloseable) replica).close();
+            }
+        }
+    }
+}
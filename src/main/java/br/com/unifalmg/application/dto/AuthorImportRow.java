@@ -0,0 +1,19 @@
+package br.com.unifalmg.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AuthorImportRow implements ImportRow {
+    private String first_name;
+    private String last_name;
+    private String nationality;
+    @JsonIgnore
+    private long line;
+}
@@ -0,0 +1,20 @@
+package br.com.unifalmg.application.dto;
+
+import br.com.unifalmg.application.entity.Author;
+import lombok.Value;
+
+/**
+ * Read-only row of the author listing, without the books collection.
+ */
+@Value
+public class AuthorSummary {
+    Integer id;
+    String first_name;
+    String last_name;
+    String nationality;
+
+    public static AuthorSummary of(Author author) {
+        return new AuthorSummary(author.getId(), author.getFirst_name(), author.getLast_name(),
+                author.getNationality());
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.unifalmg.application.dto;
+
+import br.com.unifalmg.application.entity.Book;
+import lombok.Value;
+
+/**
+ * A book with its author, as served by the JSON endpoints.
+ */
+@Value
+public class BookDetail {
+    Integer id;
+    String title;
+    Integer publication_year;
+    Integer pages;
+    AuthorSummary author;
+
+    public static BookDetail of(Book book) {
+        return new BookDetail(book.getId(), book.getTitle(), book.getPublication_year(), book.getPages(),
+                AuthorSummary.of(book.getAuthor()));
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.unifalmg.application.dto;
+
+import br.com.unifalmg.application.statistics.CatalogCounters;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Number of books per facet value among the books of a listing. Year and
+ * page keys are the lower bound of each bucket, as in {@link CatalogStatistics}.
+ */
+@Value
+public class BookFacets {
+    Map<String, Long> nationalities;
+    Map<Integer, Long> decades;
+    Map<Integer, Long> pageBuckets;
+
+    /**
+     * The facets of the whole catalog, which the statistics counters already
+     * keep. Books of authors the counters have not seen yet have no
+     * nationality to filter by, so their bucket is left out.
+     */
+    public static BookFacets of(CatalogStatistics statistics) {
+        Map<String, Long> nationalities = new TreeMap<>(statistics.getBooksPerNationality());
+        nationalities.remove(CatalogCounters.UNKNOWN);
+        return new BookFacets(nationalities, statistics.getDecadeHistogram(), statistics.getPageHistogram());
+    }
+}
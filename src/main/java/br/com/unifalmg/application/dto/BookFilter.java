@@ -0,0 +1,49 @@
+package br.com.unifalmg.application.dto;
+
+import br.com.unifalmg.application.statistics.CatalogCounters;
+import lombok.Value;
+import org.springframework.util.StringUtils;
+
+import java.util.Objects;
+
+/**
+ * Filters of the book listing; a null field does not filter and the set
+ * ones combine. The title is a prefix, the year bounds are inclusive and
+ * pages is the lower bound of a {@link CatalogCounters#PAGE_BUCKET} page
+ * bucket.
+ */
+@Value
+public class BookFilter {
+    String title;
+    Integer year;
+    String nationality;
+    Integer minYear;
+    Integer maxYear;
+    Integer pages;
+
+    public static BookFilter of(String title, Integer year, String nationality, Integer minYear, Integer maxYear,
+                                Integer pages) {
+        return new BookFilter(StringUtils.hasText(title) ? title : null, year,
+                StringUtils.hasText(nationality) ? nationality : null, minYear, maxYear,
+                CatalogCounters.pageBucket(pages));
+    }
+
+    public boolean isEmpty() {
+        return Objects.isNull(title) && Objects.isNull(year) && hasNoFacets();
+    }
+
+    /** Only a title prefix, which has its own listing in title order. */
+    public boolean hasOnlyTitle() {
+        return Objects.nonNull(title) && Objects.isNull(year) && hasNoFacets();
+    }
+
+    /** Only a publication year, which has its own indexed listing. */
+    public boolean hasOnlyYear() {
+        return Objects.isNull(title) && Objects.nonNull(year) && hasNoFacets();
+    }
+
+    private boolean hasNoFacets() {
+        return Objects.isNull(nationality) && Objects.isNull(minYear) && Objects.isNull(maxYear)
+                && Objects.isNull(pages);
+    }
+}
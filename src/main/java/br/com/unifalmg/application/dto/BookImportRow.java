@@ -0,0 +1,20 @@
+package br.com.unifalmg.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BookImportRow implements ImportRow {
+    private String title;
+    private Integer publication_year;
+    private Integer pages;
+    private Integer author_id;
+    @JsonIgnore
+    private long line;
+}
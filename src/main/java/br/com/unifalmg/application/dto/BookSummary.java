@@ -0,0 +1,16 @@
+package br.com.unifalmg.application.dto;
+
+import lombok.Value;
+
+/**
+ * Read-only row of the book listings. Built by a JPQL constructor expression,
+ * so it carries only the listed columns and is never tracked by the
+ * persistence context.
+ */
+@Value
+public class BookSummary {
+    Integer id;
+    String title;
+    Integer publication_year;
+    Integer pages;
+}
@@ -0,0 +1,26 @@
+package br.com.unifalmg.application.dto;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of the statistics endpoint. Histogram keys are the lower bound of
+ * each bucket: 100 pages, or a decade of publication years.
+ */
+@Value
+public class CatalogStatistics {
+    long books;
+    long authors;
+    List<AuthorBookCount> topAuthors;
+    Map<String, Long> booksPerNationality;
+    Map<Integer, Long> pageHistogram;
+    Map<Integer, Long> decadeHistogram;
+
+    @Value
+    public static class AuthorBookCount {
+        Integer authorId;
+        long books;
+    }
+}
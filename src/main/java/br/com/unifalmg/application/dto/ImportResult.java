@@ -0,0 +1,39 @@
+package br.com.unifalmg.application.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first rejections are reported so a bad
+ * upload cannot blow up the response.
+ */
+@Getter
+public class ImportResult {
+
+    private final int maxReportedErrors;
+    private long imported;
+    private long rejected;
+    private String failure;
+    private final List<String> errors = new ArrayList<>();
+
+    public ImportResult(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void imported(int rows) {
+        imported += rows;
+    }
+
+    public void reject(long line, String reason) {
+        rejected++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(String.format("line %d: %s", line, reason));
+        }
+    }
+
+    public void fail(long line, String reason) {
+        failure = String.format("line %d: %s", line, reason);
+    }
+}
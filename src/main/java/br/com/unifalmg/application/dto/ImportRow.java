@@ -0,0 +1,12 @@
+package br.com.unifalmg.application.dto;
+
+/**
+ * A row read from a bulk upload, remembering where it came from so that
+ * rejections can point back to it.
+ */
+public interface ImportRow {
+
+    long getLine();
+
+    void setLine(long line);
+}
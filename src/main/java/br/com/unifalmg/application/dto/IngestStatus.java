@@ -0,0 +1,38 @@
+package br.com.unifalmg.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Where a book submitted in write-behind mode stands. The book id is only
+ * known once the book was written.
+ */
+@Value
+@AllArgsConstructor
+public class IngestStatus {
+
+    public enum State {
+        QUEUED, WRITTEN, REJECTED, FAILED
+    }
+
+    String token;
+    State state;
+    Integer bookId;
+    String message;
+
+    public static IngestStatus queued(String token) {
+        return new IngestStatus(token, State.QUEUED, null, null);
+    }
+
+    public static IngestStatus written(String token, Integer bookId) {
+        return new IngestStatus(token, State.WRITTEN, bookId, null);
+    }
+
+    public static IngestStatus rejected(String token, String message) {
+        return new IngestStatus(token, State.REJECTED, null, message);
+    }
+
+    public static IngestStatus failed(String token, String message) {
+        return new IngestStatus(token, State.FAILED, null, message);
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.unifalmg.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of one id of a batch lookup; the value is left out when the id
+ * was not found.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LookupResult<T> {
+
+    public static final int MAX_IDS = 100;
+
+    public enum Status {
+        FOUND, NOT_FOUND
+    }
+
+    Integer id;
+    Status status;
+    T value;
+
+    public static <T> LookupResult<T> found(Integer id, T value) {
+        return new LookupResult<>(id, Status.FOUND, value);
+    }
+
+    public static <T> LookupResult<T> notFound(Integer id) {
+        return new LookupResult<>(id, Status.NOT_FOUND, null);
+    }
+
+    /**
+     * The ids of a batch lookup without nulls and repeats, refused above
+     * {@link #MAX_IDS}.
+     */
+    public static List<Integer> distinctIds(List<Integer> ids) {
+        List<Integer> distinct = Objects.isNull(ids) ? new ArrayList<>() : ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinct.size() > MAX_IDS) {
+            throw new IllegalArgumentException(
+                    String.format("At most %d ids can be looked up at once.", MAX_IDS));
+        }
+        return distinct;
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.unifalmg.application.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -22,8 +23,12 @@ public class Author implements Serializable {
     private String last_name;
     private String nationality;
     @OneToMany(mappedBy = "author")
+    @BatchSize(size = 32)
     //@JsonBackReference
     //@JsonManagedReference
     private List<Book> books;
 
+    @Version
+    private Long version;
+
 }
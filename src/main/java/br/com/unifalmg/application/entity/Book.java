@@ -20,11 +20,13 @@ public class Book implements Serializable {
     private Integer publication_year;
     private Integer pages;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     //@JsonManagedReference
     //@JsonBackReference
     private Author author;
 
+    @Version
+    private Long version;
 
 }
@@ -0,0 +1,27 @@
+package br.com.unifalmg.application.event;
+
+import br.com.unifalmg.application.entity.Author;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Published by the write paths once an author was created, updated or deleted.
+ */
+@Value
+@AllArgsConstructor
+public class AuthorChangedEvent {
+    ChangeType type;
+    Integer id;
+    String first_name;
+    String last_name;
+    String nationality;
+
+    public static AuthorChangedEvent of(ChangeType type, Author author) {
+        return new AuthorChangedEvent(type, author.getId(), author.getFirst_name(),
+                author.getLast_name(), author.getNationality());
+    }
+
+    public static AuthorChangedEvent deleted(Integer id) {
+        return new AuthorChangedEvent(ChangeType.DELETED, id, null, null, null);
+    }
+}
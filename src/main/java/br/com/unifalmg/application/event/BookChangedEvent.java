@@ -0,0 +1,32 @@
+package br.com.unifalmg.application.event;
+
+import br.com.unifalmg.application.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.Objects;
+
+/**
+ * Published by the write paths once a book was created, updated or deleted.
+ * Carries the columns the read-side components (search, statistics, change
+ * feed...) need so that none of them has to go back to the database.
+ */
+@Value
+@AllArgsConstructor
+public class BookChangedEvent {
+    ChangeType type;
+    Integer id;
+    String title;
+    Integer publication_year;
+    Integer pages;
+    Integer authorId;
+
+    public static BookChangedEvent of(ChangeType type, Book book) {
+        return new BookChangedEvent(type, book.getId(), book.getTitle(), book.getPublication_year(),
+                book.getPages(), Objects.isNull(book.getAuthor()) ? null : book.getAuthor().getId());
+    }
+
+    public static BookChangedEvent deleted(Integer id) {
+        return new BookChangedEvent(ChangeType.DELETED, id, null, null, null, null);
+    }
+}
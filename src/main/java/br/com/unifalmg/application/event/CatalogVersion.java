@@ -0,0 +1,51 @@
+package br.com.unifalmg.application.event;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide change token for pages that list several rows. It is the
+ * time of the last committed book or author change, starting at the boot
+ * time of this instance so that a deploy (new templates) never matches a tag
+ * handed out by the previous one. Like the caches it is local to the
+ * process.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong lastModified = new AtomicLong(System.currentTimeMillis());
+    private final String epoch = Long.toString(lastModified.get(), 36);
+
+    public long getLastModified() {
+        return lastModified.get();
+    }
+
+    public String getTag() {
+        return Long.toString(lastModified.get(), 36);
+    }
+
+    /**
+     * Scopes a tag built from row versions to this boot, for the same reason
+     * the list token starts at the boot time.
+     */
+    public String tagOf(String rowTag) {
+        return epoch + "-" + rowTag;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        touch();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        touch();
+    }
+
+    /** Strictly increasing, even for several changes within a millisecond. */
+    private void touch() {
+        lastModified.accumulateAndGet(System.currentTimeMillis(), (previous, now) -> Math.max(previous + 1, now));
+    }
+}
@@ -0,0 +1,294 @@
+package br.com.unifalmg.application.event;
+
+import br.com.unifalmg.application.config.ChangeFeedProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent change feed. Every committed book and author change gets the
+ * next sequence number, is kept in a bounded history and is queued for each
+ * subscriber. Dispatch threads write the queues out, one per subscriber with
+ * something to send, so the write path never waits on a client and a client
+ * that stops reading blocks only its own thread. One that falls further
+ * behind than its buffer, or whose write stays blocked past the send
+ * timeout, is disconnected; the blocked thread itself is only freed when the
+ * servlet container times the write out.
+ * <p>
+ * Event ids are "&lt;boot epoch&gt;-&lt;sequence&gt;". A client that reconnects with
+ * the id of the last event it saw gets the changes it missed from the
+ * history; when they are no longer there (or the id is from another boot)
+ * it gets a "reset" event and has to reload whatever it keeps locally.
+ */
+@Log4j2
+@Component
+public class ChangeFeed {
+
+    public static final String RESET = "reset";
+
+    private final ChangeFeedProperties properties;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Deque<ChangeFeedEvent> history = new ArrayDeque<>();
+    private long sequence;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+
+    public ChangeFeed(ChangeFeedProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("catalog.changes.subscribers", subscribers, Set::size).register(registry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        append("book", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        append("author", event);
+    }
+
+    /**
+     * Numbers the change and hands it to every subscriber. Numbering and
+     * registration share the history lock, so a new subscriber sees each
+     * change exactly once: either in its backlog or live.
+     */
+    private void append(String name, Object data) {
+        synchronized (history) {
+            sequence++;
+            ChangeFeedEvent change = new ChangeFeedEvent(sequence, epoch + "-" + sequence, name, data);
+            history.addLast(change);
+            if (history.size() > properties.getHistory()) {
+                history.removeFirst();
+            }
+            subscribers.forEach(subscriber -> subscriber.offer(change));
+        }
+    }
+
+    /**
+     * The changes after the given event id, or empty when they can no longer
+     * be replayed and the client has to reset.
+     */
+    public Optional<List<ChangeFeedEvent>> replay(String lastEventId) {
+        synchronized (history) {
+            return replayFrom(lastEventId);
+        }
+    }
+
+    private Optional<List<ChangeFeedEvent>> replayFrom(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return Optional.empty();
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        long oldest = sequence - history.size() + 1;
+        if (last > sequence || last < oldest - 1) {
+            return Optional.empty();
+        }
+        List<ChangeFeedEvent> missed = new ArrayList<>((int) (sequence - last));
+        for (ChangeFeedEvent change : history) {
+            if (change.getSequence() > last) {
+                missed.add(change);
+            }
+        }
+        return Optional.of(missed);
+    }
+
+    /**
+     * Id of the latest change, to resume from when a client loads its data
+     * some other way first.
+     */
+    public String getLastEventId() {
+        synchronized (history) {
+            return epoch + "-" + sequence;
+        }
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber;
+        synchronized (history) {
+            Optional<List<ChangeFeedEvent>> missed = Objects.isNull(lastEventId)
+                    ? Optional.of(Collections.emptyList()) : replayFrom(lastEventId);
+            List<ChangeFeedEvent> backlog = missed.orElse(Collections.emptyList());
+            subscriber = new Subscriber(emitter, backlog.size() + properties.getSubscriberBuffer(),
+                    missed.isEmpty());
+            backlog.forEach(subscriber::offer);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Keeps idle connections (and the proxies in between) open, finds the
+     * subscribers that went away without closing and drops the ones stuck
+     * in a write.
+     */
+    @Scheduled(fixedDelayString = "${app.change-feed.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> {
+            if (subscriber.isStuck(now)) {
+                log.info("Assinante do feed de mudanças parou de ler, desconectando");
+                subscriber.drop();
+            } else {
+                subscriber.heartbeat();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final BlockingQueue<ChangeFeedEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean reset;
+        private volatile boolean heartbeatDue;
+        private volatile boolean overflowed;
+        private volatile boolean dropped;
+        // System.nanoTime() when the current write started, 0 between writes.
+        private volatile long writingSince;
+
+        private Subscriber(SseEmitter emitter, int capacity, boolean reset) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.reset = reset;
+        }
+
+        /**
+         * Once a change did not fit, the later ones are dropped too, so the
+         * client never sees a gap; it resumes from the last one it got.
+         */
+        private void offer(ChangeFeedEvent change) {
+            if (overflowed || dropped) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        private void heartbeat() {
+            heartbeatDue = true;
+            schedule();
+        }
+
+        private boolean isStuck(long now) {
+            long since = writingSince;
+            return since != 0 && now - since > properties.getSendTimeout().toNanos();
+        }
+
+        /**
+         * Stops feeding the subscriber. The emitter is not completed here:
+         * that waits for the blocked send, so the dispatch thread completes it
+         * once the write fails.
+         */
+        private void drop() {
+            dropped = true;
+            subscribers.remove(this);
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            writingSince = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                writingSince = 0;
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (reset) {
+                    reset = false;
+                    send(SseEmitter.event().name(RESET).data(""));
+                }
+                ChangeFeedEvent change;
+                while (!dropped && (change = queue.poll()) != null) {
+                    send(SseEmitter.event()
+                            .id(change.getId())
+                            .name(change.getName())
+                            .data(change.getData(), MediaType.APPLICATION_JSON));
+                }
+                if (dropped) {
+                    emitter.complete();
+                    return;
+                }
+                if (overflowed) {
+                    log.info("Assinante do feed de mudanças ficou para trás, desconectando");
+                    subscribers.remove(this);
+                    emitter.complete();
+                    return;
+                }
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty() || overflowed) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.unifalmg.application.event;
+
+import lombok.Value;
+
+/**
+ * One committed change as sent on the change feed: the SSE id, the event
+ * name ("book" or "author") and the change event as data.
+ */
+@Value
+public class ChangeFeedEvent {
+    long sequence;
+    String id;
+    String name;
+    Object data;
+}
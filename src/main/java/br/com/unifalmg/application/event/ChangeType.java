@@ -0,0 +1,7 @@
+package br.com.unifalmg.application.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
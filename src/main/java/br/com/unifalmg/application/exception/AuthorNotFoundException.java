@@ -5,8 +5,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class AuthorNotFoundException extends  RuntimeException {
     public AuthorNotFoundException(String message){ super(message);}
-}
-
-
 
+    private AuthorNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 
+    /** See {@link BookNotFoundException#stackless}. */
+    public static AuthorNotFoundException stackless(String message) {
+        return new AuthorNotFoundException(message, false);
+    }
+}
@@ -6,4 +6,16 @@ import lombok.NoArgsConstructor;
 public class BookNotFoundException extends RuntimeException{
 
     public BookNotFoundException(String message){ super(message);}
+
+    private BookNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Without a stack trace, for the lookups of ids that do not exist: it
+     * would cost more than the lookup and the 404 handler never prints it.
+     */
+    public static BookNotFoundException stackless(String message) {
+        return new BookNotFoundException(message, false);
+    }
 }
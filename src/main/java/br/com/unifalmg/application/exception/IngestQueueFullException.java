@@ -0,0 +1,9 @@
+package br.com.unifalmg.application.exception;
+
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+public class IngestQueueFullException extends RuntimeException {
+
+    public IngestQueueFullException(String message){super(message);}
+}
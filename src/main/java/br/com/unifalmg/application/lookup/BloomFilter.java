@@ -0,0 +1,65 @@
+package br.com.unifalmg.application.lookup;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over int ids. {@link #mightContain} never answers false for
+ * an id that was put, and answers true for an id that was not with about the
+ * false positive rate it was sized for. Ids cannot be taken out again.
+ * <p>
+ * The bits are an {@link AtomicLongArray}, so puts and lookups run
+ * concurrently without locking.
+ */
+public class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long expected = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.words = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) >>> 6));
+        this.bits = (long) words.length() * Long.SIZE;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expected * LN2));
+    }
+
+    public void put(int id) {
+        long hash = mix(id);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = ((first + (long) i * second) & Long.MAX_VALUE) % bits;
+            words.accumulateAndGet((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+        }
+    }
+
+    public boolean mightContain(int id) {
+        long hash = mix(id);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = ((first + (long) i * second) & Long.MAX_VALUE) % bits;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Spreads consecutive ids over the whole 64 bits (the MurmurHash3
+     * finalizer); the two halves are the two hashes all probes derive from.
+     */
+    private static long mix(int id) {
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
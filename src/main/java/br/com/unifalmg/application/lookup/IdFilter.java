@@ -0,0 +1,94 @@
+package br.com.unifalmg.application.lookup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The ids of one entity type in a {@link BloomFilter}, to turn away lookups
+ * of ids that do not exist without asking the database. Until the first load
+ * every id might exist.
+ * <p>
+ * A deleted id stays in the filter and only costs a query, so deletes are
+ * not tracked; the periodic rebuild drops them. The filter is sized from
+ * the ids found by the load, with room for as many new ones. Ids added while
+ * a rebuild is loading are replayed on the new filter before it replaces the
+ * live one, as in {@link br.com.unifalmg.application.search.SearchIndex}.
+ */
+public class IdFilter {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final double falsePositiveRate;
+    private volatile BloomFilter live;
+    private volatile int size;
+    private List<Integer> replay;
+
+    public IdFilter(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean mightContain(int id) {
+        BloomFilter filter = live;
+        return Objects.isNull(filter) || filter.mightContain(id);
+    }
+
+    public synchronized void add(int id) {
+        if (Objects.nonNull(live)) {
+            live.put(id);
+        }
+        if (Objects.nonNull(replay)) {
+            replay.add(id);
+        }
+    }
+
+    /**
+     * Loads the filter from scratch; the loader hands every existing id to
+     * the given consumer.
+     */
+    public void rebuild(Consumer<IntConsumer> loader) {
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        Ids ids = new Ids();
+        try {
+            loader.accept(ids);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                replay = null;
+            }
+            throw e;
+        }
+        BloomFilter fresh = new BloomFilter(Math.max(MIN_CAPACITY, 2L * ids.count), falsePositiveRate);
+        for (int i = 0; i < ids.count; i++) {
+            fresh.put(ids.values[i]);
+        }
+        synchronized (this) {
+            replay.forEach(fresh::put);
+            replay = null;
+            live = fresh;
+            size = ids.count;
+        }
+    }
+
+    /** Ids found by the last load. */
+    public int size() {
+        return size;
+    }
+
+    private static final class Ids implements IntConsumer {
+        private int[] values = new int[MIN_CAPACITY];
+        private int count;
+
+        @Override
+        public void accept(int id) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count++] = id;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.unifalmg.application.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a request-facing service operation, or every public method of a
+ * service, for {@link ServiceMetricsAspect}. Event listeners, scheduled
+ * jobs and internal helpers stay unmarked so they do not show up as
+ * operations.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Monitored {
+}
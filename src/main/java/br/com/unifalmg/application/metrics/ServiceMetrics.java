@@ -0,0 +1,102 @@
+package br.com.unifalmg.application.metrics;
+
+import br.com.unifalmg.application.exception.AuthorNotFoundException;
+import br.com.unifalmg.application.exception.BookNotFoundException;
+import br.com.unifalmg.application.exception.InvalidAuthorException;
+import br.com.unifalmg.application.exception.InvalidBookException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The {@code catalog.service} timer and {@code catalog.service.errors}
+ * counter, both tagged with the operation and its outcome. Blocking calls
+ * are timed by {@link ServiceMetricsAspect}; reactive ones time themselves
+ * with {@link #timed}, since their work only starts on subscription.
+ * Meters are registered once per operation and outcome, not per call.
+ */
+@Component
+@AllArgsConstructor
+public class ServiceMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Key, Counter> errors = new ConcurrentHashMap<>();
+
+    @Value
+    private static class Key {
+        String operation;
+        String outcome;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Stops the sample under the outcome of the failure, or as a success
+     * when there is none.
+     */
+    public void stop(Timer.Sample sample, String operation, Throwable failure) {
+        stop(sample, operation, Objects.isNull(failure) ? "success" : outcomeOf(failure));
+    }
+
+    private void stop(Timer.Sample sample, String operation, String outcome) {
+        Key key = new Key(operation, outcome);
+        if (!"success".equals(outcome)) {
+            errors.computeIfAbsent(key, k -> Counter.builder("catalog.service.errors")
+                    .tag("operation", k.getOperation())
+                    .tag("outcome", k.getOutcome())
+                    .register(registry))
+                    .increment();
+        }
+        sample.stop(timers.computeIfAbsent(key, k -> Timer.builder("catalog.service")
+                .tag("operation", k.getOperation())
+                .tag("outcome", k.getOutcome())
+                .publishPercentileHistogram()
+                .register(registry)));
+    }
+
+    /**
+     * Times the Mono from subscription to its end; one built when
+     * subscribed, so a failure while building it counts as well. A
+     * cancelled subscription is timed as {@code cancelled}.
+     */
+    public <T> Mono<T> timed(String operation, Supplier<Mono<T>> mono) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = start();
+            return Mono.defer(mono)
+                    .doOnSuccess(value -> stop(sample, operation, (Throwable) null))
+                    .doOnError(e -> stop(sample, operation, e))
+                    .doOnCancel(() -> stop(sample, operation, "cancelled"));
+        });
+    }
+
+    static String outcomeOf(Throwable e) {
+        if (e instanceof BookNotFoundException || e instanceof AuthorNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof InvalidBookException || e instanceof InvalidAuthorException
+                || e instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (e instanceof ResponseStatusException) {
+            return ((ResponseStatusException) e).getStatus().name().toLowerCase();
+        }
+        return "error";
+    }
+}
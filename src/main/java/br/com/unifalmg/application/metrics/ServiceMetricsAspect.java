@@ -0,0 +1,43 @@
+package br.com.unifalmg.application.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the blocking service operations marked {@link Monitored} as
+ * {@code catalog.service} and counts failures as
+ * {@code catalog.service.errors}, through {@link ServiceMetrics}. Methods
+ * returning a Publisher are left out: they return before any work is done,
+ * so they time themselves with {@link ServiceMetrics#timed}. HTTP endpoints
+ * are already timed by Spring Boot as {@code http.server.requests}.
+ */
+@Aspect
+@Component
+@AllArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final ServiceMetrics metrics;
+
+    @Around("execution(public * br.com.unifalmg.application.service..*.*(..))"
+            + " && (@within(br.com.unifalmg.application.metrics.Monitored)"
+            + " || @annotation(br.com.unifalmg.application.metrics.Monitored))"
+            + " && !execution(public org.reactivestreams.Publisher+ *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        Timer.Sample sample = metrics.start();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, operation, failure);
+        }
+    }
+}
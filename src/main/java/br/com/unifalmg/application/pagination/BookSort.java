@@ -0,0 +1,35 @@
+package br.com.unifalmg.application.pagination;
+
+import br.com.unifalmg.application.dto.BookSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Function;
+
+/**
+ * Orderings supported by the book listing. Every ordering is broken by id
+ * so the keyset is unique.
+ */
+@Getter
+@AllArgsConstructor
+public enum BookSort {
+    ID("id", book -> null),
+    TITLE("title", BookSummary::getTitle),
+    PUBLICATION_YEAR("year", BookSummary::getPublication_year);
+
+    private final String parameter;
+    private final Function<BookSummary, Object> key;
+
+    public static BookSort fromParameter(String parameter) {
+        for (BookSort sort : values()) {
+            if (sort.parameter.equalsIgnoreCase(parameter) || sort.name().equalsIgnoreCase(parameter)) {
+                return sort;
+            }
+        }
+        return ID;
+    }
+
+    public String cursorOf(BookSummary book) {
+        return PageCursor.encode(book.getId(), key.apply(book));
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.unifalmg.application.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (cursor) listing. The repositories are asked for
+ * {@code size + 1} rows so the extra row tells whether another page exists
+ * without running a count query.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final String previousCursor;
+    private final int size;
+
+    public static int clampSize(Integer size) {
+        if (Objects.isNull(size) || size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * Builds a page from rows fetched in ascending order after a cursor.
+     */
+    public static <T> KeysetPage<T> forward(List<T> rows, int size, boolean hasPrevious,
+                                            Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null, size);
+        }
+        return new KeysetPage<>(content,
+                hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null,
+                hasPrevious ? cursorOf.apply(content.get(0)) : null,
+                size);
+    }
+
+    /**
+     * Builds a page from rows fetched in descending order before a cursor.
+     * The rows are put back in ascending order; a next page always exists
+     * because the cursor row itself comes after this page.
+     */
+    public static <T> KeysetPage<T> backward(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasPrevious = rows.size() > size;
+        List<T> content = new ArrayList<>(hasPrevious ? rows.subList(0, size) : rows);
+        Collections.reverse(content);
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null, size);
+        }
+        return new KeysetPage<>(content,
+                cursorOf.apply(content.get(content.size() - 1)),
+                hasPrevious ? cursorOf.apply(content.get(0)) : null,
+                size);
+    }
+
+    public boolean hasNext() {
+        return Objects.nonNull(nextCursor);
+    }
+
+    public boolean hasPrevious() {
+        return Objects.nonNull(previousCursor);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.unifalmg.application.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position of the last (or first) row of a page: the row id plus the value
+ * of the sort column, encoded as an opaque URL-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private final Integer id;
+    private final String key;
+
+    public static String encode(Integer id, Object key) {
+        String raw = id + ":" + (Objects.isNull(key) ? "" : key);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new PageCursor(Integer.valueOf(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor.");
+        }
+    }
+
+    public Integer keyAsInteger() {
+        try {
+            return Integer.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor.");
+        }
+    }
+}
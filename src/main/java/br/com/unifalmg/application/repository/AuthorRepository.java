@@ -1,10 +1,85 @@
 package br.com.unifalmg.application.repository;
 
+import br.com.unifalmg.application.dto.AuthorSummary;
 import br.com.unifalmg.application.entity.Author;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Integer> {
 
+    String SUMMARY = "select new br.com.unifalmg.application.dto.AuthorSummary(" +
+            "a.id, a.first_name, a.last_name, a.nationality) from Author a ";
+
+    @Query(SUMMARY + "where a.id > :id order by a.id asc")
+    List<AuthorSummary> findIdPageAfter(@Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "where a.id < :id order by a.id desc")
+    List<AuthorSummary> findIdPageBefore(@Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Authors with the given last name, served by idx_author_last_name.
+     */
+    @Query(SUMMARY + "where a.last_name = :lastName and a.id > :id order by a.id asc")
+    List<AuthorSummary> findLastNameAfter(@Param("lastName") String lastName, @Param("id") Integer id,
+                                          Pageable pageable);
+
+    @Query(SUMMARY + "where a.last_name = :lastName and a.id < :id order by a.id desc")
+    List<AuthorSummary> findLastNameBefore(@Param("lastName") String lastName, @Param("id") Integer id,
+                                           Pageable pageable);
+
+    /**
+     * Authors of the given nationality, served by idx_author_nationality.
+     */
+    @Query(SUMMARY + "where a.nationality = :nationality and a.id > :id order by a.id asc")
+    List<AuthorSummary> findNationalityAfter(@Param("nationality") String nationality, @Param("id") Integer id,
+                                             Pageable pageable);
+
+    @Query(SUMMARY + "where a.nationality = :nationality and a.id < :id order by a.id desc")
+    List<AuthorSummary> findNationalityBefore(@Param("nationality") String nationality, @Param("id") Integer id,
+                                              Pageable pageable);
+
+    /**
+     * Streams the authors without any book through a server-side cursor, for
+     * the export; consume inside a transaction and close.
+     */
+    @Query("select a from Author a where not exists (select b.id from Book b where b.author = a) order by a.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Author> streamWithoutBooks();
+
+    @Query("select a.id from Author a where a.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("update Author a set a.first_name = :firstName, a.last_name = :lastName, " +
+            "a.nationality = :nationality, a.version = coalesce(a.version, 0) + 1 where a.id = :id")
+    int updateAuthor(@Param("id") Integer id, @Param("firstName") String firstName,
+                     @Param("lastName") String lastName, @Param("nationality") String nationality);
+
+    @Modifying
+    @Query("update Author a set a.first_name = :firstName, a.last_name = :lastName, " +
+            "a.nationality = :nationality, a.version = a.version + 1 where a.id = :id and a.version = :version")
+    int updateAuthorVersion(@Param("id") Integer id, @Param("firstName") String firstName,
+                            @Param("lastName") String lastName, @Param("nationality") String nationality,
+                            @Param("version") Long version);
+
+    @Modifying
+    @Query("delete from Author a where a.id = :id")
+    int deleteAuthorById(@Param("id") Integer id);
 }
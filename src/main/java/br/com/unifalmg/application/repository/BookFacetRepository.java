@@ -0,0 +1,29 @@
+package br.com.unifalmg.application.repository;
+
+import br.com.unifalmg.application.dto.BookFacets;
+import br.com.unifalmg.application.dto.BookFilter;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.entity.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Faceted listing of {@link BookRepository}: the filters come as a
+ * {@link Specification} built by {@link BookSpecifications}, so the queries
+ * are put together with the criteria API instead of declared.
+ */
+public interface BookFacetRepository {
+
+    List<BookSummary> findFilterPageAfter(Specification<Book> filter, Integer id, Pageable pageable);
+
+    List<BookSummary> findFilterPageBefore(Specification<Book> filter, Integer id, Pageable pageable);
+
+    /**
+     * Counts the matching books per nationality, decade and page bucket with
+     * one query: a native UNION ALL of the three group-bys, so only the
+     * per-facet counts come back.
+     */
+    BookFacets countFacets(BookFilter filter);
+}
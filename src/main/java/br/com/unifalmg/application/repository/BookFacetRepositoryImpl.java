@@ -0,0 +1,141 @@
+package br.com.unifalmg.application.repository;
+
+import br.com.unifalmg.application.dto.BookFacets;
+import br.com.unifalmg.application.dto.BookFilter;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.statistics.CatalogCounters;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+public class BookFacetRepositoryImpl implements BookFacetRepository {
+
+    private static final String DECADE =
+            "b.publication_year - mod(b.publication_year, " + CatalogCounters.YEAR_BUCKET + ")";
+    private static final String PAGE_BUCKET = "b.pages - mod(b.pages, " + CatalogCounters.PAGE_BUCKET + ")";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookSummary> findFilterPageAfter(Specification<Book> filter, Integer id, Pageable pageable) {
+        return findFilterPage(filter, id, true, pageable);
+    }
+
+    @Override
+    public List<BookSummary> findFilterPageBefore(Specification<Book> filter, Integer id, Pageable pageable) {
+        return findFilterPage(filter, id, false, pageable);
+    }
+
+    /**
+     * One page in id order, read as summaries like the declared listings.
+     */
+    private List<BookSummary> findFilterPage(Specification<Book> filter, Integer id, boolean forward,
+                                             Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookSummary> query = cb.createQuery(BookSummary.class);
+        Root<Book> book = query.from(Book.class);
+        Path<Integer> bookId = book.get("id");
+        Predicate keyset = forward ? cb.greaterThan(bookId, id) : cb.lessThan(bookId, id);
+        query.select(cb.construct(BookSummary.class,
+                        bookId, book.get("title"), book.get("publication_year"), book.get("pages")))
+                .where(and(cb, filter.toPredicate(book, query, cb), keyset))
+                .orderBy(forward ? cb.asc(bookId) : cb.desc(bookId));
+        return entityManager.createQuery(query)
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public BookFacets countFacets(BookFilter filter) {
+        List<Object> parameters = new ArrayList<>();
+        String where = where(filter, parameters);
+        String from = "from db.book b join db.author a on a.id = b.author_id" + where;
+        String sql = "select 'nationality', a.nationality, null, count(*) " + from
+                + " and a.nationality is not null group by a.nationality"
+                + " union all select 'decade', null, " + DECADE + ", count(*) " + from
+                + " and b.publication_year is not null group by " + DECADE
+                + " union all select 'pages', null, " + PAGE_BUCKET + ", count(*) " + from
+                + " and b.pages is not null group by " + PAGE_BUCKET;
+        Query query = entityManager.createNativeQuery(sql);
+        // every branch of the union repeats the filter parameters
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < parameters.size(); j++) {
+                query.setParameter(i * parameters.size() + j + 1, parameters.get(j));
+            }
+        }
+
+        Map<String, Long> nationalities = new TreeMap<>();
+        Map<Integer, Long> decades = new TreeMap<>();
+        Map<Integer, Long> pageBuckets = new TreeMap<>();
+        for (Object result : query.getResultList()) {
+            Object[] row = (Object[]) result;
+            long books = ((Number) row[3]).longValue();
+            switch ((String) row[0]) {
+                case "nationality":
+                    nationalities.put((String) row[1], books);
+                    break;
+                case "decade":
+                    decades.put(((Number) row[2]).intValue(), books);
+                    break;
+                default:
+                    pageBuckets.put(((Number) row[2]).intValue(), books);
+            }
+        }
+        return new BookFacets(nationalities, decades, pageBuckets);
+    }
+
+    /**
+     * The SQL conditions of {@link BookSpecifications#matching}, always
+     * ending in a where clause so the callers can append more conditions.
+     * The LIKE pattern relies on backslash, the default escape character of
+     * both MySQL and H2.
+     */
+    private static String where(BookFilter filter, List<Object> parameters) {
+        StringBuilder where = new StringBuilder(" where 1 = 1");
+        if (Objects.nonNull(filter.getTitle())) {
+            where.append(" and b.title like ?");
+            parameters.add(BookSpecifications.likePrefix(filter.getTitle()));
+        }
+        if (Objects.nonNull(filter.getYear())) {
+            where.append(" and b.publication_year = ?");
+            parameters.add(filter.getYear());
+        }
+        if (Objects.nonNull(filter.getNationality())) {
+            where.append(" and a.nationality = ?");
+            parameters.add(filter.getNationality());
+        }
+        if (Objects.nonNull(filter.getMinYear())) {
+            where.append(" and b.publication_year >= ?");
+            parameters.add(filter.getMinYear());
+        }
+        if (Objects.nonNull(filter.getMaxYear())) {
+            where.append(" and b.publication_year <= ?");
+            parameters.add(filter.getMaxYear());
+        }
+        if (Objects.nonNull(filter.getPages())) {
+            where.append(" and b.pages between ? and ?");
+            parameters.add(filter.getPages());
+            parameters.add(filter.getPages() + CatalogCounters.PAGE_BUCKET - 1);
+        }
+        return where.toString();
+    }
+
+    private static Predicate and(CriteriaBuilder cb, Predicate filter, Predicate keyset) {
+        return Objects.isNull(filter) ? keyset : cb.and(filter, keyset);
+    }
+}
@@ -1,10 +1,157 @@
 package br.com.unifalmg.application.repository;
 
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.entity.Author;
 import br.com.unifalmg.application.entity.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface BookRepository extends JpaRepository<Book, Integer> {
+public interface BookRepository extends JpaRepository<Book, Integer>, BookFacetRepository {
+
+    /**
+     * The detail page always shows the author, so load it in the same select.
+     */
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Optional<Book> findById(Integer id);
+
+    /**
+     * Batch lookup, with the authors in the same select.
+     */
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Book> findAllById(Iterable<Integer> ids);
+
+    /**
+     * Validator for the detail page: the book and author versions, read from
+     * the primary key without loading either entity.
+     */
+    @Query("select concat(str(coalesce(b.version, 0)), '.', str(coalesce(a.version, 0))) " +
+            "from Book b join b.author a where b.id = :id")
+    Optional<String> findTagById(@Param("id") Integer id);
+
+    String SUMMARY = "select new br.com.unifalmg.application.dto.BookSummary(" +
+            "b.id, b.title, b.publication_year, b.pages) from Book b ";
+
+    @Query(SUMMARY + "where b.author.id = :authorId and b.id > :id order by b.id asc")
+    List<BookSummary> findAuthorPageAfter(@Param("authorId") Integer authorId, @Param("id") Integer id,
+                                          Pageable pageable);
+
+    @Query(SUMMARY + "where b.author.id = :authorId and b.id < :id order by b.id desc")
+    List<BookSummary> findAuthorPageBefore(@Param("authorId") Integer authorId, @Param("id") Integer id,
+                                           Pageable pageable);
+
+    @Query(SUMMARY + "where b.id > :id order by b.id asc")
+    List<BookSummary> findIdPageAfter(@Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "where b.id < :id order by b.id desc")
+    List<BookSummary> findIdPageBefore(@Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "order by b.title asc, b.id asc")
+    List<BookSummary> findTitlePage(Pageable pageable);
+
+    @Query(SUMMARY + "where b.title > :title or (b.title = :title and b.id > :id) " +
+            "order by b.title asc, b.id asc")
+    List<BookSummary> findTitlePageAfter(@Param("title") String title, @Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "where b.title < :title or (b.title = :title and b.id < :id) " +
+            "order by b.title desc, b.id desc")
+    List<BookSummary> findTitlePageBefore(@Param("title") String title, @Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "order by b.publication_year asc, b.id asc")
+    List<BookSummary> findYearPage(Pageable pageable);
+
+    @Query(SUMMARY + "where b.publication_year > :year or (b.publication_year = :year and b.id > :id) " +
+            "order by b.publication_year asc, b.id asc")
+    List<BookSummary> findYearPageAfter(@Param("year") Integer year, @Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "where b.publication_year < :year or (b.publication_year = :year and b.id < :id) " +
+            "order by b.publication_year desc, b.id desc")
+    List<BookSummary> findYearPageBefore(@Param("year") Integer year, @Param("id") Integer id, Pageable pageable);
+
+    /*
+     * Filtered listings. Each one is answered by one of the (key, id) indexes
+     * created in V3__add_query_indexes.sql.
+     */
+    @Query(SUMMARY + "where b.publication_year = :year and b.id > :id order by b.id asc")
+    List<BookSummary> findYearFilterAfter(@Param("year") Integer year, @Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "where b.publication_year = :year and b.id < :id order by b.id desc")
+    List<BookSummary> findYearFilterBefore(@Param("year") Integer year, @Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "where b.title like :prefix escape '\\' order by b.title asc, b.id asc")
+    List<BookSummary> findTitlePrefixPage(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query(SUMMARY + "where b.title like :prefix escape '\\' " +
+            "and (b.title > :title or (b.title = :title and b.id > :id)) order by b.title asc, b.id asc")
+    List<BookSummary> findTitlePrefixAfter(@Param("prefix") String prefix, @Param("title") String title,
+                                           @Param("id") Integer id, Pageable pageable);
+
+    @Query(SUMMARY + "where b.title like :prefix escape '\\' " +
+            "and (b.title < :title or (b.title = :title and b.id < :id)) order by b.title desc, b.id desc")
+    List<BookSummary> findTitlePrefixBefore(@Param("prefix") String prefix, @Param("title") String title,
+                                            @Param("id") Integer id, Pageable pageable);
+
+    /**
+     * The whole listing in the given order through a server-side cursor, for
+     * the streamed page; consume inside a transaction and close.
+     */
+    @Query(SUMMARY + "order by b.id asc")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookSummary> streamIdOrder();
+
+    @Query(SUMMARY + "order by b.title asc, b.id asc")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookSummary> streamTitleOrder();
+
+    @Query(SUMMARY + "order by b.publication_year asc, b.id asc")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookSummary> streamYearOrder();
+
+    /**
+     * Streams every book with its author through a server-side cursor; the
+     * caller must consume it inside a transaction and close it.
+     */
+    @Query("select b from Book b join fetch b.author order by b.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Book> streamAll();
+
+    @Modifying
+    @Query("update Book b set b.title = :title, b.publication_year = :year, b.pages = :pages, " +
+            "b.author = :author, b.version = coalesce(b.version, 0) + 1 where b.id = :id")
+    int updateBook(@Param("id") Integer id, @Param("title") String title, @Param("year") Integer year,
+                   @Param("pages") Integer pages, @Param("author") Author author);
+
+    /**
+     * Same as {@link #updateBook} but only when the row still has the given
+     * version; 0 updated rows then means a concurrent edit (or no such book).
+     */
+    @Modifying
+    @Query("update Book b set b.title = :title, b.publication_year = :year, b.pages = :pages, " +
+            "b.author = :author, b.version = b.version + 1 where b.id = :id and b.version = :version")
+    int updateBookVersion(@Param("id") Integer id, @Param("title") String title, @Param("year") Integer year,
+                          @Param("pages") Integer pages, @Param("author") Author author,
+                          @Param("version") Long version);
 
+    @Modifying
+    @Query("delete from Book b where b.id = :id")
+    int deleteBookById(@Param("id") Integer id);
 }
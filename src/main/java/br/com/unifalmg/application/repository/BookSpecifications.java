@@ -0,0 +1,83 @@
+package br.com.unifalmg.application.repository;
+
+import br.com.unifalmg.application.dto.BookFilter;
+import br.com.unifalmg.application.entity.Author;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.statistics.CatalogCounters;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import java.util.Objects;
+
+/**
+ * Predicates of the filtered book listing. Each filter that is set adds one
+ * condition; together they are served by the indexes of
+ * V4__add_facet_indexes.sql and V3__add_query_indexes.sql.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> matching(BookFilter filter) {
+        return Specification.where(titlePrefix(filter.getTitle()))
+                .and(publishedIn(filter.getYear()))
+                .and(nationality(filter.getNationality()))
+                .and(publishedFrom(filter.getMinYear()))
+                .and(publishedUntil(filter.getMaxYear()))
+                .and(pageBucket(filter.getPages()));
+    }
+
+    /**
+     * The LIKE pattern of a title prefix, with the wildcards in the prefix
+     * escaped so it is matched literally.
+     */
+    public static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    static Specification<Book> titlePrefix(String prefix) {
+        return Objects.isNull(prefix) ? null
+                : (book, query, cb) -> cb.like(book.<String>get("title"), likePrefix(prefix), '\\');
+    }
+
+    static Specification<Book> publishedIn(Integer year) {
+        return Objects.isNull(year) ? null
+                : (book, query, cb) -> cb.equal(book.get("publication_year"), year);
+    }
+
+    static Specification<Book> nationality(String nationality) {
+        return Objects.isNull(nationality) ? null
+                : (book, query, cb) -> cb.equal(author(book).get("nationality"), nationality);
+    }
+
+    static Specification<Book> publishedFrom(Integer year) {
+        return Objects.isNull(year) ? null
+                : (book, query, cb) -> cb.greaterThanOrEqualTo(book.<Integer>get("publication_year"), year);
+    }
+
+    static Specification<Book> publishedUntil(Integer year) {
+        return Objects.isNull(year) ? null
+                : (book, query, cb) -> cb.lessThanOrEqualTo(book.<Integer>get("publication_year"), year);
+    }
+
+    static Specification<Book> pageBucket(Integer bucket) {
+        return Objects.isNull(bucket) ? null
+                : (book, query, cb) -> cb.between(book.<Integer>get("pages"), bucket,
+                bucket + CatalogCounters.PAGE_BUCKET - 1);
+    }
+
+    /**
+     * The join to the author, created once per query so the filter and the
+     * facet grouping share it.
+     */
+    @SuppressWarnings("unchecked")
+    static Join<Book, Author> author(Root<Book> book) {
+        return book.getJoins().stream()
+                .filter(join -> "author".equals(join.getAttribute().getName()))
+                .map(join -> (Join<Book, Author>) join)
+                .findFirst()
+                .orElseGet(() -> book.join("author"));
+    }
+}
@@ -0,0 +1,159 @@
+package br.com.unifalmg.application.repository;
+
+import br.com.unifalmg.application.dto.AuthorImportRow;
+import br.com.unifalmg.application.dto.BookImportRow;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Plain JDBC batch inserts. The entities use IDENTITY keys, which keeps
+ * Hibernate from batching inserts, so bulk writes go through here instead.
+ */
+@Repository
+@AllArgsConstructor
+public class CatalogJdbcRepository {
+
+    private static final String INSERT_BOOK =
+            "insert into db.book (title, publication_year, pages, author_id, version) values (?, ?, ?, ?, 0)";
+    private static final String INSERT_AUTHOR =
+            "insert into db.author (first_name, last_name, nationality, version) values (?, ?, ?, 0)";
+
+    private static final String SCAN_BOOKS =
+            "select id, title, publication_year, pages, author_id from db.book";
+    private static final String SCAN_AUTHORS =
+            "select id, first_name, last_name, nationality from db.author";
+    private static final String SCAN_BOOK_IDS = "select id from db.book";
+    private static final String SCAN_AUTHOR_IDS = "select id from db.author";
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    private static final String BOOKS_PER_AUTHOR =
+            "select author_id, count(*) from db.book group by author_id";
+    private static final String BOOKS_PER_NATIONALITY =
+            "select coalesce(a.nationality, 'unknown'), count(*) from db.book b join db.author a on a.id = b.author_id " +
+                    "group by coalesce(a.nationality, 'unknown')";
+    private static final String BOOKS_PER_PAGE_BUCKET =
+            "select floor(pages / 100) * 100, count(*) from db.book where pages is not null group by floor(pages / 100) * 100";
+    private static final String BOOKS_PER_DECADE =
+            "select floor(publication_year / 10) * 10, count(*) from db.book where publication_year is not null " +
+                    "group by floor(publication_year / 10) * 10";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the rows in one JDBC batch and returns the generated ids in row order.
+     */
+    public List<Integer> insertBooks(List<BookImportRow> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOK, Statement.RETURN_GENERATED_KEYS)) {
+                for (BookImportRow row : rows) {
+                    statement.setString(1, row.getTitle());
+                    statement.setObject(2, row.getPublication_year(), Types.INTEGER);
+                    statement.setObject(3, row.getPages(), Types.INTEGER);
+                    statement.setObject(4, row.getAuthor_id(), Types.INTEGER);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                return generatedKeys(statement, rows.size());
+            }
+        });
+    }
+
+    public List<Integer> insertAuthors(List<AuthorImportRow> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_AUTHOR, Statement.RETURN_GENERATED_KEYS)) {
+                for (AuthorImportRow row : rows) {
+                    statement.setString(1, row.getFirst_name());
+                    statement.setString(2, row.getLast_name());
+                    statement.setString(3, row.getNationality());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                return generatedKeys(statement, rows.size());
+            }
+        });
+    }
+
+    /**
+     * Hands every book row to the handler without materializing entities,
+     * for components that rebuild in-memory state from the table.
+     */
+    public void scanBooks(RowCallbackHandler handler) {
+        scan(SCAN_BOOKS, handler);
+    }
+
+    public void scanAuthors(RowCallbackHandler handler) {
+        scan(SCAN_AUTHORS, handler);
+    }
+
+    public void scanBookIds(RowCallbackHandler handler) {
+        scan(SCAN_BOOK_IDS, handler);
+    }
+
+    public void scanAuthorIds(RowCallbackHandler handler) {
+        scan(SCAN_AUTHOR_IDS, handler);
+    }
+
+    public Map<Integer, Long> countBooksPerAuthor() {
+        return countByInteger(BOOKS_PER_AUTHOR);
+    }
+
+    public Map<String, Long> countBooksPerNationality() {
+        Map<String, Long> counts = new TreeMap<>();
+        jdbcTemplate.query(BOOKS_PER_NATIONALITY, (RowCallbackHandler) rs ->
+                counts.put(rs.getString(1), rs.getLong(2)));
+        return counts;
+    }
+
+    /**
+     * Keyed by the first page count of each bucket of 100 pages.
+     */
+    public Map<Integer, Long> countBooksPerPageBucket() {
+        return countByInteger(BOOKS_PER_PAGE_BUCKET);
+    }
+
+    public Map<Integer, Long> countBooksPerDecade() {
+        return countByInteger(BOOKS_PER_DECADE);
+    }
+
+    private Map<Integer, Long> countByInteger(String sql) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            int key = rs.getInt(1);
+            if (!rs.wasNull()) {
+                counts.put(key, rs.getLong(2));
+            }
+        });
+        return counts;
+    }
+
+    private void scan(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+
+    private static List<Integer> generatedKeys(Statement statement, int expected) throws SQLException {
+        List<Integer> ids = new ArrayList<>(expected);
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            while (keys.next()) {
+                ids.add(keys.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.unifalmg.application.repository;
+
+import br.com.unifalmg.application.dto.AuthorSummary;
+import br.com.unifalmg.application.dto.BookDetail;
+import br.com.unifalmg.application.dto.BookSummary;
+import io.r2dbc.spi.Row;
+import lombok.AllArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only R2DBC queries for the reactive read API. They return the same
+ * summaries as the JPA listing queries and page the same way, by id.
+ */
+@Repository
+@AllArgsConstructor
+public class ReactiveCatalogRepository {
+
+    private static final String BOOK_DETAIL =
+            "select b.id, b.title, b.publication_year, b.pages, a.id as author_id, a.first_name, a.last_name, " +
+                    "a.nationality from db.book b join db.author a on a.id = b.author_id where b.id = :id";
+    private static final String BOOK_SUMMARY = "select id, title, publication_year, pages from db.book ";
+    private static final String AUTHOR_SUMMARY = "select id, first_name, last_name, nationality from db.author ";
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    public Mono<BookDetail> findBook(Integer id) {
+        return reactiveDatabaseClient.sql(BOOK_DETAIL)
+                .bind("id", id)
+                .map((row, metadata) -> new BookDetail(row.get("id", Integer.class), row.get("title", String.class),
+                        row.get("publication_year", Integer.class), row.get("pages", Integer.class),
+                        new AuthorSummary(row.get("author_id", Integer.class), row.get("first_name", String.class),
+                                row.get("last_name", String.class), row.get("nationality", String.class))))
+                .one();
+    }
+
+    public Flux<BookSummary> findBooksAfter(Integer id, int limit) {
+        return books(BOOK_SUMMARY + "where id > :id order by id asc limit :limit", id, limit);
+    }
+
+    public Flux<BookSummary> findBooksBefore(Integer id, int limit) {
+        return books(BOOK_SUMMARY + "where id < :id order by id desc limit :limit", id, limit);
+    }
+
+    public Flux<BookSummary> findAuthorBooksAfter(Integer authorId, Integer id, int limit) {
+        return reactiveDatabaseClient.sql(BOOK_SUMMARY + "where author_id = :authorId and id > :id " +
+                        "order by id asc limit :limit")
+                .bind("authorId", authorId)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map((row, metadata) -> toBookSummary(row))
+                .all();
+    }
+
+    public Flux<BookSummary> findAuthorBooksBefore(Integer authorId, Integer id, int limit) {
+        return reactiveDatabaseClient.sql(BOOK_SUMMARY + "where author_id = :authorId and id < :id " +
+                        "order by id desc limit :limit")
+                .bind("authorId", authorId)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map((row, metadata) -> toBookSummary(row))
+                .all();
+    }
+
+    public Mono<AuthorSummary> findAuthor(Integer id) {
+        return reactiveDatabaseClient.sql(AUTHOR_SUMMARY + "where id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toAuthorSummary(row))
+                .one();
+    }
+
+    public Flux<AuthorSummary> findAuthorsAfter(Integer id, int limit) {
+        return authors(AUTHOR_SUMMARY + "where id > :id order by id asc limit :limit", id, limit);
+    }
+
+    public Flux<AuthorSummary> findAuthorsBefore(Integer id, int limit) {
+        return authors(AUTHOR_SUMMARY + "where id < :id order by id desc limit :limit", id, limit);
+    }
+
+    private Flux<BookSummary> books(String sql, Integer id, int limit) {
+        return reactiveDatabaseClient.sql(sql)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map((row, metadata) -> toBookSummary(row))
+                .all();
+    }
+
+    private Flux<AuthorSummary> authors(String sql, Integer id, int limit) {
+        return reactiveDatabaseClient.sql(sql)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map((row, metadata) -> toAuthorSummary(row))
+                .all();
+    }
+
+    private static BookSummary toBookSummary(Row row) {
+        return new BookSummary(row.get("id", Integer.class), row.get("title", String.class),
+                row.get("publication_year", Integer.class), row.get("pages", Integer.class));
+    }
+
+    private static AuthorSummary toAuthorSummary(Row row) {
+        return new AuthorSummary(row.get("id", Integer.class), row.get("first_name", String.class),
+                row.get("last_name", String.class), row.get("nationality", String.class));
+    }
+}
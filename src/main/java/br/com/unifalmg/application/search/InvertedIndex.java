@@ -0,0 +1,187 @@
+package br.com.unifalmg.application.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index of one document type. Terms are lower-cased and
+ * stripped of accents; a query matches documents containing every term, the
+ * last one also as a prefix, and hits are ranked by tf-idf.
+ */
+public class InvertedIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    private final String type;
+    private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InvertedIndex(String type) {
+        this.type = type;
+    }
+
+    public static List<String> tokenize(String text) {
+        if (Objects.isNull(text)) {
+            return Collections.emptyList();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(term -> !term.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public void put(Integer id, String label, String... fields) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String field : fields) {
+            for (String term : tokenize(field)) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+            documents.put(id, new Document(label, frequencies.keySet().toArray(new String[0])));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the total number of matches and the {@code limit} best hits.
+     */
+    public TopHits search(List<String> terms, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return new TopHits(0, Collections.emptyList());
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Integer, Double> termScores = score(terms.get(i), i == terms.size() - 1);
+                scores = Objects.isNull(scores) ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return new TopHits(0, Collections.emptyList());
+                }
+            }
+            return new TopHits(scores.size(), top(scores, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Double> score(String term, boolean prefix) {
+        Map<Integer, Double> scores = new HashMap<>();
+        Map<Integer, Integer> exact = postings.get(term);
+        if (Objects.nonNull(exact)) {
+            add(scores, exact, 1.0);
+        }
+        if (prefix) {
+            for (Map.Entry<String, Map<Integer, Integer>> entry
+                    : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                add(scores, entry.getValue(), PREFIX_WEIGHT);
+            }
+        }
+        return scores;
+    }
+
+    private void add(Map<Integer, Double> scores, Map<Integer, Integer> posting, double weight) {
+        double idf = Math.log(1.0 + (double) documents.size() / posting.size());
+        posting.forEach((id, tf) -> scores.merge(id, weight * tf * idf, Double::sum));
+    }
+
+    private static Map<Integer, Double> intersect(Map<Integer, Double> left, Map<Integer, Double> right) {
+        Map<Integer, Double> smaller = left.size() <= right.size() ? left : right;
+        Map<Integer, Double> larger = smaller == left ? right : left;
+        Map<Integer, Double> result = new HashMap<>();
+        smaller.forEach((id, score) -> {
+            Double other = larger.get(id);
+            if (Objects.nonNull(other)) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    private List<SearchHit> top(Map<Integer, Double> scores, int limit) {
+        Comparator<SearchHit> ranking = Comparator.comparingDouble(SearchHit::getScore).reversed()
+                .thenComparing(SearchHit::getId);
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(Math.min(limit, scores.size()) + 1, ranking.reversed());
+        scores.forEach((id, score) -> {
+            best.add(new SearchHit(type, id, documents.get(id).label, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(ranking);
+        return hits;
+    }
+
+    private void removeLocked(Integer id) {
+        Document document = documents.remove(id);
+        if (Objects.isNull(document)) {
+            return;
+        }
+        for (String term : document.terms) {
+            Map<Integer, Integer> posting = postings.get(term);
+            if (Objects.nonNull(posting)) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Document {
+        private final String label;
+        private final String[] terms;
+    }
+
+    @Value
+    public static class TopHits {
+        long total;
+        List<SearchHit> hits;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.unifalmg.application.search;
+
+import lombok.Value;
+
+@Value
+public class SearchHit {
+    String type;
+    Integer id;
+    String label;
+    double score;
+}
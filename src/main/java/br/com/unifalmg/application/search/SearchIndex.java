@@ -0,0 +1,62 @@
+package br.com.unifalmg.application.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Holds the live {@link InvertedIndex} of one document type and rebuilds it
+ * without blocking searches. Changes that arrive while a rebuild is loading
+ * are replayed on the new index before it replaces the live one.
+ */
+public class SearchIndex {
+
+    private final String type;
+    private volatile InvertedIndex live;
+    private InvertedIndex building;
+    private final List<Consumer<InvertedIndex>> replay = new ArrayList<>();
+
+    public SearchIndex(String type) {
+        this.type = type;
+        this.live = new InvertedIndex(type);
+    }
+
+    public synchronized void apply(Consumer<InvertedIndex> change) {
+        change.accept(live);
+        if (Objects.nonNull(building)) {
+            replay.add(change);
+        }
+    }
+
+    public void rebuild(Consumer<InvertedIndex> loader) {
+        InvertedIndex fresh = new InvertedIndex(type);
+        synchronized (this) {
+            building = fresh;
+            replay.clear();
+        }
+        try {
+            loader.accept(fresh);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                building = null;
+                replay.clear();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            replay.forEach(change -> change.accept(fresh));
+            replay.clear();
+            building = null;
+            live = fresh;
+        }
+    }
+
+    public InvertedIndex.TopHits search(List<String> terms, int limit) {
+        return live.search(terms, limit);
+    }
+
+    public int size() {
+        return live.size();
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.unifalmg.application.search;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class SearchResults {
+    List<SearchHit> hits;
+    long total;
+    int page;
+    int size;
+
+    public boolean hasNext() {
+        return (long) (page + 1) * size < total;
+    }
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+}
@@ -1,76 +1,234 @@
 package br.com.unifalmg.application.service;
 
+import br.com.unifalmg.application.dto.AuthorSummary;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.dto.LookupResult;
 import br.com.unifalmg.application.entity.Author;
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
 import br.com.unifalmg.application.exception.AuthorNotFoundException;
 import br.com.unifalmg.application.exception.InvalidAuthorException;
+import br.com.unifalmg.application.metrics.Monitored;
+import br.com.unifalmg.application.pagination.KeysetPage;
+import br.com.unifalmg.application.pagination.PageCursor;
 import br.com.unifalmg.application.repository.AuthorRepository;
 import br.com.unifalmg.application.repository.BookRepository;
+import br.com.unifalmg.application.util.SingleFlight;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
+@Monitored
 @AllArgsConstructor
 public class AuthorService {
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final SingleFlight<Integer, Optional<Author>> authorLookups;
+    private final IdFilterService idFilter;
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Author> getAuthors() {
         return  authorRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public KeysetPage<AuthorSummary> getAuthors(String after, String before, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        if (Objects.nonNull(before)) {
+            List<AuthorSummary> rows = authorRepository.findIdPageBefore(PageCursor.decode(before).getId(), limit);
+            return KeysetPage.backward(rows, pageSize, author -> PageCursor.encode(author.getId(), null));
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        List<AuthorSummary> rows = authorRepository.findIdPageAfter(afterId, limit);
+        return KeysetPage.forward(rows, pageSize, Objects.nonNull(after),
+                author -> PageCursor.encode(author.getId(), null));
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<AuthorSummary> getAuthorsByLastName(String lastName, String after, String before,
+                                                          Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        if (Objects.nonNull(before)) {
+            List<AuthorSummary> rows = authorRepository.findLastNameBefore(
+                    lastName, PageCursor.decode(before).getId(), limit);
+            return KeysetPage.backward(rows, pageSize, author -> PageCursor.encode(author.getId(), null));
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        List<AuthorSummary> rows = authorRepository.findLastNameAfter(lastName, afterId, limit);
+        return KeysetPage.forward(rows, pageSize, Objects.nonNull(after),
+                author -> PageCursor.encode(author.getId(), null));
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<AuthorSummary> getAuthorsByNationality(String nationality, String after, String before,
+                                                             Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        if (Objects.nonNull(before)) {
+            List<AuthorSummary> rows = authorRepository.findNationalityBefore(
+                    nationality, PageCursor.decode(before).getId(), limit);
+            return KeysetPage.backward(rows, pageSize, author -> PageCursor.encode(author.getId(), null));
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        List<AuthorSummary> rows = authorRepository.findNationalityAfter(nationality, afterId, limit);
+        return KeysetPage.forward(rows, pageSize, Objects.nonNull(after),
+                author -> PageCursor.encode(author.getId(), null));
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<BookSummary> getAuthorBooks(Integer authorId, String after, String before, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        if (Objects.nonNull(before)) {
+            List<BookSummary> rows = bookRepository.findAuthorPageBefore(
+                    authorId, PageCursor.decode(before).getId(), limit);
+            return KeysetPage.backward(rows, pageSize, book -> PageCursor.encode(book.getId(), null));
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        List<BookSummary> rows = bookRepository.findAuthorPageAfter(authorId, afterId, limit);
+        return KeysetPage.forward(rows, pageSize, Objects.nonNull(after),
+                book -> PageCursor.encode(book.getId(), null));
+    }
+
+    /**
+     * Filtered and coalesced on a cache miss like {@link BookService#getBook}.
+     */
+    @Cacheable(cacheNames = "authors", key = "#id", condition = "#id != null")
     public Author getAuthor(Integer id) {
         if (Objects.isNull(id)) {
             throw new IllegalArgumentException("Id null when fetching for an author.");
         }
-        return authorRepository.findById(id).orElseThrow(() ->
-                new AuthorNotFoundException(
-                        String.format("No author found for id %d", id))
-        );
+        if (!idFilter.mightHaveAuthor(id)) {
+            throw notFound(id);
+        }
+        return authorLookups.execute(id, () -> authorRepository.findById(id)).orElseThrow(() -> notFound(id));
+    }
+
+    private static AuthorNotFoundException notFound(Integer id) {
+        return AuthorNotFoundException.stackless(String.format("No author found for id %d", id));
+    }
+
+    /**
+     * Batch lookup in the order of the ids, like {@link BookService#lookupBooks}.
+     */
+    public List<LookupResult<AuthorSummary>> lookupAuthors(List<Integer> ids) {
+        List<Integer> distinct = LookupResult.distinctIds(ids);
+        Cache cache = cacheManager.getCache("authors");
+        Map<Integer, Author> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : distinct) {
+            Author cached = Objects.isNull(cache) ? null : cache.get(id, Author.class);
+            if (Objects.nonNull(cached)) {
+                found.put(id, cached);
+            } else if (idFilter.mightHaveAuthor(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Author author : authorRepository.findAllById(missing)) {
+                found.put(author.getId(), author);
+                if (Objects.nonNull(cache)) {
+                    cache.put(author.getId(), author);
+                }
+            }
+        }
+        return distinct.stream()
+                .map(id -> found.containsKey(id) ? LookupResult.found(id, AuthorSummary.of(found.get(id)))
+                        : LookupResult.<AuthorSummary>notFound(id))
+                .collect(Collectors.toList());
     }
 
+    @CacheEvict(cacheNames = "authors", key = "#result.id")
     public Author add(Author author) {
-        if (Objects.isNull(author) || Objects.isNull(author.getFirst_name())
-                || Objects.isNull(author.getLast_name()) || Objects.isNull(author.getNationality())) {
+        if (!isValid(author)) {
             throw new InvalidAuthorException();
         }
-        return authorRepository.save(author);
+        Author addedAuthor = authorRepository.save(author);
+        eventPublisher.publishEvent(AuthorChangedEvent.of(ChangeType.CREATED, addedAuthor));
+        return addedAuthor;
     }
 
+    /**
+     * Updates the author with a single statement, conditional on the version
+     * when the form carries one. An id that does not exist creates a new
+     * author, as this endpoint always did. Cached books hold a copy of their
+     * author, so an author edit also drops the book entries and their tags.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "authors", key = "#result.id"),
+            @CacheEvict(cacheNames = "books", allEntries = true),
+            @CacheEvict(cacheNames = "bookTags", allEntries = true)
+    })
+    @Transactional
     public Author editAuthor(Author author){
-        if (Objects.isNull(author) || Objects.isNull(author.getFirst_name())
-                || Objects.isNull(author.getLast_name()) || Objects.isNull(author.getNationality())) {
+        if (!isValid(author)) {
             throw new InvalidAuthorException();
         }
-        Optional<Author> existingAuthorOptional = authorRepository.findById(author.getId());
-
-        if (existingAuthorOptional.isPresent()) {
-            Author existingAuthor = existingAuthorOptional.get();
-            existingAuthor.setNationality(author.getNationality());
-            existingAuthor.setFirst_name(author.getFirst_name());
-            existingAuthor.setLast_name(author.getLast_name());
-            return authorRepository.save(existingAuthor);
+        int updated = 0;
+        if (Objects.nonNull(author.getId())) {
+            updated = Objects.isNull(author.getVersion())
+                    ? authorRepository.updateAuthor(author.getId(), author.getFirst_name(),
+                            author.getLast_name(), author.getNationality())
+                    : authorRepository.updateAuthorVersion(author.getId(), author.getFirst_name(),
+                            author.getLast_name(), author.getNationality(), author.getVersion());
+        }
+
+        if (updated > 0) {
+            if (Objects.nonNull(author.getVersion())) {
+                author.setVersion(author.getVersion() + 1);
+            }
+            eventPublisher.publishEvent(AuthorChangedEvent.of(ChangeType.UPDATED, author));
+            return author;
         }
-        else {
-            return authorRepository.save(author);
+        if (Objects.nonNull(author.getVersion()) && authorRepository.existsById(author.getId())) {
+            throw new ObjectOptimisticLockingFailureException(Author.class, author.getId());
         }
+        author.setId(null);
+        author.setVersion(null);
+        Author addedAuthor = authorRepository.save(author);
+        eventPublisher.publishEvent(AuthorChangedEvent.of(ChangeType.CREATED, addedAuthor));
+        return addedAuthor;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = "authors", key = "#id")
     public void deleteAuthor(Integer id, Boolean confirmDeletion) {
         if (confirmDeletion != null && confirmDeletion) {
-            Author author = authorRepository.findById(id)
-                    .orElseThrow(() -> new AuthorNotFoundException());
-
-            authorRepository.deleteById(id);
+            if (authorRepository.deleteAuthorById(id) == 0) {
+                throw new AuthorNotFoundException(String.format("No author found for id %d", id));
+            }
+            eventPublisher.publishEvent(AuthorChangedEvent.deleted(id));
         } else {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "To delete the author, confirm-deletion must be true.");
         }
     }
 
+    static boolean isValid(Author author) {
+        return Objects.nonNull(author) && Objects.nonNull(author.getFirst_name())
+                && Objects.nonNull(author.getLast_name()) && Objects.nonNull(author.getNationality());
+    }
 }
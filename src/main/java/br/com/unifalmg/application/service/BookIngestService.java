@@ -0,0 +1,302 @@
+package br.com.unifalmg.application.service;
+
+import br.com.unifalmg.application.config.WriteBehindProperties;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.dto.IngestStatus;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
+import br.com.unifalmg.application.exception.AuthorNotFoundException;
+import br.com.unifalmg.application.exception.IngestQueueFullException;
+import br.com.unifalmg.application.exception.InvalidBookException;
+import br.com.unifalmg.application.metrics.Monitored;
+import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind mode of book creation. Submitted books are validated on the
+ * request thread, put on a bounded queue and written by one background
+ * writer in JDBC batches, one transaction per batch, the same way the bulk
+ * import writes them. A full queue refuses new books instead of blocking.
+ * <p>
+ * The queue lives in memory: it is drained when the application shuts down
+ * gracefully, but books still queued when the process dies are lost.
+ */
+@Log4j2
+@Service
+public class BookIngestService implements SmartLifecycle {
+
+    /** Size of book.title in V1__create_catalog.sql. */
+    public static final int TITLE_MAX_LENGTH = 255;
+
+    private final AuthorRepository authorRepository;
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<PendingBook> queue;
+    private final Cache<String, IngestStatus> statuses;
+    private final Timer flushTimer;
+    private final Counter refused;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Value
+    private static class PendingBook {
+        String token;
+        BookImportRow row;
+    }
+
+    public BookIngestService(AuthorRepository authorRepository, CatalogJdbcRepository catalogJdbcRepository,
+                             TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                             WriteBehindProperties properties, MeterRegistry registry) {
+        this.authorRepository = authorRepository;
+        this.catalogJdbcRepository = catalogJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getStatusRetention())
+                .maximumSize(properties.getQueueCapacity() * 10L)
+                .build();
+        Gauge.builder("catalog.ingest.queue.depth", queue, Collection::size).register(registry);
+        this.flushTimer = Timer.builder("catalog.ingest.flush").register(registry);
+        this.refused = Counter.builder("catalog.ingest.refused").register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues the book and returns the token its outcome can be polled with.
+     * Invalid books are refused right away, a missing author only once the
+     * batch is written. The column limits are checked here too, since one
+     * row the database refuses fails its whole batch.
+     */
+    @Monitored
+    public IngestStatus submit(Book book, Integer idAuthor) {
+        if (!BookService.isValid(book)) {
+            throw new InvalidBookException();
+        }
+        if (book.getTitle().length() > TITLE_MAX_LENGTH) {
+            throw new InvalidBookException(
+                    String.format("The title can have at most %d characters.", TITLE_MAX_LENGTH));
+        }
+        if (Objects.isNull(idAuthor)) {
+            throw new AuthorNotFoundException();
+        }
+        String token = UUID.randomUUID().toString();
+        IngestStatus status = IngestStatus.queued(token);
+        statuses.put(token, status);
+        BookImportRow row = new BookImportRow(book.getTitle(), book.getPublication_year(), book.getPages(),
+                idAuthor, 0);
+        if (!queue.offer(new PendingBook(token, row))) {
+            statuses.invalidate(token);
+            refused.increment();
+            throw new IngestQueueFullException(
+                    String.format("The write-behind queue is full (%d books).", properties.getQueueCapacity()));
+        }
+        return status;
+    }
+
+    @Monitored
+    public Optional<IngestStatus> getStatus(String token) {
+        return Optional.ofNullable(statuses.getIfPresent(token));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Writes everything queued at this moment on the calling thread.
+     */
+    public int drain() {
+        int written = 0;
+        List<PendingBook> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            write(batch);
+            written += batch.size();
+            batch.clear();
+        }
+        return written;
+    }
+
+    private void writeLoop() {
+        List<PendingBook> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first book, then gives the batch at most max-delay to fill
+     * up. Every wait is bounded, so the loop notices a stop quickly.
+     */
+    private void fill(List<PendingBook> batch) throws InterruptedException {
+        long maxDelay = properties.getMaxDelay().toNanos();
+        PendingBook first = queue.poll(maxDelay, TimeUnit.NANOSECONDS);
+        if (Objects.isNull(first)) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelay;
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                return;
+            }
+            PendingBook next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (Objects.isNull(next)) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Resolves the authors of the batch with one query and inserts the books
+     * whose author exists. Outcomes are published only after the commit.
+     * A failed batch is retried one book at a time, so a bad row fails only
+     * its own book.
+     */
+    private void write(List<PendingBook> batch) {
+        long start = System.nanoTime();
+        try {
+            Map<String, IngestStatus> outcomes = transactionTemplate.execute(status -> {
+                Map<String, IngestStatus> result = new HashMap<>();
+                Set<Integer> authorIds = batch.stream()
+                        .map(pending -> pending.getRow().getAuthor_id())
+                        .collect(Collectors.toSet());
+                Set<Integer> existing = new HashSet<>(authorRepository.findExistingIds(authorIds));
+                List<PendingBook> accepted = new ArrayList<>(batch.size());
+                for (PendingBook pending : batch) {
+                    if (existing.contains(pending.getRow().getAuthor_id())) {
+                        accepted.add(pending);
+                    } else {
+                        result.put(pending.getToken(), IngestStatus.rejected(pending.getToken(),
+                                String.format("No author found for id %d", pending.getRow().getAuthor_id())));
+                    }
+                }
+                if (!accepted.isEmpty()) {
+                    List<Integer> ids = catalogJdbcRepository.insertBooks(accepted.stream()
+                            .map(PendingBook::getRow)
+                            .collect(Collectors.toList()));
+                    for (int i = 0; i < ids.size(); i++) {
+                        PendingBook pending = accepted.get(i);
+                        BookImportRow row = pending.getRow();
+                        eventPublisher.publishEvent(new BookChangedEvent(ChangeType.CREATED, ids.get(i),
+                                row.getTitle(), row.getPublication_year(), row.getPages(), row.getAuthor_id()));
+                        result.put(pending.getToken(), IngestStatus.written(pending.getToken(), ids.get(i)));
+                    }
+                }
+                return result;
+            });
+            if (Objects.nonNull(outcomes)) {
+                statuses.putAll(outcomes);
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                log.warn("Lote de {} livros falhou, gravando um a um", batch.size(), e);
+                retryOneByOne(batch);
+            } else {
+                PendingBook pending = batch.get(0);
+                log.error("Falha ao gravar o livro {} em segundo plano", pending.getToken(), e);
+                statuses.put(pending.getToken(),
+                        IngestStatus.failed(pending.getToken(), "The book could not be written."));
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void retryOneByOne(List<PendingBook> batch) {
+        for (PendingBook pending : batch) {
+            write(Collections.singletonList(pending));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "book-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer and writes what is left in the queue before the
+     * datasource goes away.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int written = drain();
+        log.info("Gravação em segundo plano encerrada, {} livros da fila gravados no desligamento", written);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Below the embedded web server's phases, so the writer starts before
+     * requests are accepted and stops only once they no longer arrive.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2;
+    }
+}
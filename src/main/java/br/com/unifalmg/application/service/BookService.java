@@ -1,45 +1,268 @@
 package br.com.unifalmg.application.service;
 
+import br.com.unifalmg.application.dto.BookDetail;
+import br.com.unifalmg.application.dto.BookFacets;
+import br.com.unifalmg.application.dto.BookFilter;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.dto.LookupResult;
 import br.com.unifalmg.application.entity.Author;
 import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
 import br.com.unifalmg.application.exception.AuthorNotFoundException;
 import br.com.unifalmg.application.exception.BookNotFoundException;
 import br.com.unifalmg.application.exception.InvalidBookException;
+import br.com.unifalmg.application.metrics.Monitored;
+import br.com.unifalmg.application.pagination.BookSort;
+import br.com.unifalmg.application.pagination.KeysetPage;
+import br.com.unifalmg.application.pagination.PageCursor;
 import br.com.unifalmg.application.repository.AuthorRepository;
 import br.com.unifalmg.application.repository.BookRepository;
+import br.com.unifalmg.application.repository.BookSpecifications;
+import br.com.unifalmg.application.util.SingleFlight;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Monitored
 @AllArgsConstructor
 public class BookService {
     private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final SingleFlight<Integer, Optional<Book>> bookLookups;
+    private final IdFilterService idFilter;
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Book> getBooks() {
         return  bookRepository.findAll();
     }
 
+    /**
+     * One page of the listing as read-only summaries; nothing is loaded into
+     * the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BookSummary> getBooks(BookSort sort, String after, String before, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        if (Objects.nonNull(before)) {
+            List<BookSummary> rows = findBooksBefore(sort, PageCursor.decode(before), limit);
+            return KeysetPage.backward(rows, pageSize, sort::cursorOf);
+        }
+        PageCursor cursor = Objects.isNull(after) ? null : PageCursor.decode(after);
+        List<BookSummary> rows = findBooksAfter(sort, cursor, limit);
+        return KeysetPage.forward(rows, pageSize, Objects.nonNull(cursor), sort::cursorOf);
+    }
+
+    private List<BookSummary> findBooksAfter(BookSort sort, PageCursor cursor, Pageable limit) {
+        switch (sort) {
+            case TITLE:
+                return Objects.isNull(cursor) ? bookRepository.findTitlePage(limit)
+                        : bookRepository.findTitlePageAfter(cursor.getKey(), cursor.getId(), limit);
+            case PUBLICATION_YEAR:
+                return Objects.isNull(cursor) ? bookRepository.findYearPage(limit)
+                        : bookRepository.findYearPageAfter(cursor.keyAsInteger(), cursor.getId(), limit);
+            default:
+                return bookRepository.findIdPageAfter(Objects.isNull(cursor) ? 0 : cursor.getId(), limit);
+        }
+    }
+
+    private List<BookSummary> findBooksBefore(BookSort sort, PageCursor cursor, Pageable limit) {
+        switch (sort) {
+            case TITLE:
+                return bookRepository.findTitlePageBefore(cursor.getKey(), cursor.getId(), limit);
+            case PUBLICATION_YEAR:
+                return bookRepository.findYearPageBefore(cursor.keyAsInteger(), cursor.getId(), limit);
+            default:
+                return bookRepository.findIdPageBefore(cursor.getId(), limit);
+        }
+    }
+
+    /**
+     * Books published in the given year, in id order.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BookSummary> getBooksByYear(Integer year, String after, String before, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        if (Objects.nonNull(before)) {
+            List<BookSummary> rows = bookRepository.findYearFilterBefore(
+                    year, PageCursor.decode(before).getId(), limit);
+            return KeysetPage.backward(rows, pageSize, BookSort.ID::cursorOf);
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        List<BookSummary> rows = bookRepository.findYearFilterAfter(year, afterId, limit);
+        return KeysetPage.forward(rows, pageSize, Objects.nonNull(after), BookSort.ID::cursorOf);
+    }
+
+    /**
+     * Books whose title starts with the given prefix, in title order. The
+     * prefix is matched literally; LIKE wildcards in it are escaped.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BookSummary> getBooksByTitle(String prefix, String after, String before, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        String pattern = BookSpecifications.likePrefix(prefix);
+        if (Objects.nonNull(before)) {
+            PageCursor cursor = PageCursor.decode(before);
+            List<BookSummary> rows = bookRepository.findTitlePrefixBefore(
+                    pattern, cursor.getKey(), cursor.getId(), limit);
+            return KeysetPage.backward(rows, pageSize, BookSort.TITLE::cursorOf);
+        }
+        PageCursor cursor = Objects.isNull(after) ? null : PageCursor.decode(after);
+        List<BookSummary> rows = Objects.isNull(cursor) ? bookRepository.findTitlePrefixPage(pattern, limit)
+                : bookRepository.findTitlePrefixAfter(pattern, cursor.getKey(), cursor.getId(), limit);
+        return KeysetPage.forward(rows, pageSize, Objects.nonNull(cursor), BookSort.TITLE::cursorOf);
+    }
+
+    /**
+     * Books matching any combination of filters, in id order.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BookSummary> getBooksByFilter(BookFilter filter, String after, String before, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        Specification<Book> matching = BookSpecifications.matching(filter);
+        if (Objects.nonNull(before)) {
+            List<BookSummary> rows = bookRepository.findFilterPageBefore(
+                    matching, PageCursor.decode(before).getId(), limit);
+            return KeysetPage.backward(rows, pageSize, BookSort.ID::cursorOf);
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        List<BookSummary> rows = bookRepository.findFilterPageAfter(matching, afterId, limit);
+        return KeysetPage.forward(rows, pageSize, Objects.nonNull(after), BookSort.ID::cursorOf);
+    }
+
+    /**
+     * Facet counts of the books matching the filters, from one aggregate
+     * query.
+     */
+    @Transactional(readOnly = true)
+    public BookFacets getBookFacets(BookFilter filter) {
+        return bookRepository.countFacets(filter);
+    }
+
+    /**
+     * Hands the whole listing to the consumer as an iterator over a database
+     * cursor, so the caller can render rows as they arrive. The transaction
+     * (and the cursor) stays open until the consumer returns.
+     */
+    @Transactional(readOnly = true)
+    public void streamBooks(BookSort sort, Consumer<Iterator<BookSummary>> consumer) {
+        try (Stream<BookSummary> rows = streamBooksIn(sort)) {
+            consumer.accept(rows.iterator());
+        }
+    }
+
+    private Stream<BookSummary> streamBooksIn(BookSort sort) {
+        switch (sort) {
+            case TITLE:
+                return bookRepository.streamTitleOrder();
+            case PUBLICATION_YEAR:
+                return bookRepository.streamYearOrder();
+            default:
+                return bookRepository.streamIdOrder();
+        }
+    }
+
+    /**
+     * On a cache miss, ids the id filter rules out are refused without a
+     * query, and concurrent calls for the same id share one query. The
+     * repository call brings its own read-only transaction, so callers
+     * waiting for it hold no connection.
+     */
+    @Cacheable(cacheNames = "books", key = "#id", condition = "#id != null")
     public Book getBook(Integer id) {
         if (Objects.isNull(id)) {
             throw new IllegalArgumentException("Id null when fetching for an book.");
         }
-        return bookRepository.findById(id).orElseThrow(() ->
-                new BookNotFoundException(
-                        String.format("No book found for id %d", id))
-        );
+        if (!idFilter.mightHaveBook(id)) {
+            throw notFound(id);
+        }
+        return bookLookups.execute(id, () -> bookRepository.findById(id)).orElseThrow(() -> notFound(id));
     }
+
+    private static BookNotFoundException notFound(Integer id) {
+        return BookNotFoundException.stackless(String.format("No book found for id %d", id));
+    }
+
+    /**
+     * Batch lookup in the order of the ids. Cached books are served from the
+     * book cache and the rest are loaded with one IN query and cached as
+     * {@link #getBook} would; ids the id filter rules out are not queried.
+     * A missing id is reported in its own result.
+     */
+    public List<LookupResult<BookDetail>> lookupBooks(List<Integer> ids) {
+        List<Integer> distinct = LookupResult.distinctIds(ids);
+        Cache cache = cacheManager.getCache("books");
+        Map<Integer, Book> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : distinct) {
+            Book cached = Objects.isNull(cache) ? null : cache.get(id, Book.class);
+            if (Objects.nonNull(cached)) {
+                found.put(id, cached);
+            } else if (idFilter.mightHaveBook(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Book book : bookRepository.findAllById(missing)) {
+                found.put(book.getId(), book);
+                if (Objects.nonNull(cache)) {
+                    cache.put(book.getId(), book);
+                }
+            }
+        }
+        return distinct.stream()
+                .map(id -> found.containsKey(id) ? LookupResult.found(id, BookDetail.of(found.get(id)))
+                        : LookupResult.<BookDetail>notFound(id))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Version tag of the book page, or null when there is no such book. Edits
+     * of the book or of any author evict it together with the cached book.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = "bookTags", key = "#id", unless = "#result == null")
+    public String getBookTag(Integer id) {
+        if (!idFilter.mightHaveBook(id)) {
+            return null;
+        }
+        return bookRepository.findTagById(id).orElse(null);
+    }
+
+    @CacheEvict(cacheNames = "books", key = "#result.id")
     public Book add(Book book, Integer idAuthor) {
-        if (Objects.isNull(book) || Objects.isNull(book.getTitle())
-                || Objects.isNull(book.getPages()) || Objects.isNull(book.getPublication_year())) {
+        if (!isValid(book)) {
             throw new InvalidBookException();
         }
 
@@ -47,49 +270,82 @@ public class BookService {
 
         if(existingAuthorOptional.isPresent()){
             book.setAuthor(existingAuthorOptional.get());
-            return bookRepository.save(book);
+            Book addedBook = bookRepository.save(book);
+            eventPublisher.publishEvent(BookChangedEvent.of(ChangeType.CREATED, addedBook));
+            return addedBook;
         }
         else{
             throw new AuthorNotFoundException();
         }
     }
 
+    /**
+     * Updates the book with a single statement. The author is linked through
+     * a reference, so a missing author surfaces as a foreign key violation
+     * instead of a lookup. When the form carries a version the update only
+     * applies to that version and a concurrent edit fails with an optimistic
+     * locking conflict.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "books", key = "#result.id"),
+            @CacheEvict(cacheNames = "bookTags", key = "#result.id")
+    })
     public Book editBook(Book book, Integer idAuthor) {
-        if (Objects.isNull(book) || Objects.isNull(book.getTitle())
-                || Objects.isNull(book.getPages()) || Objects.isNull(book.getPublication_year())) {
+        if (!isValid(book)) {
             throw new InvalidBookException();
         }
-
-        Optional<Author> existingAuthorOptional = authorRepository.findById(idAuthor);
-        Optional<Book> existingBookOptional = bookRepository.findById(book.getId());
-
-        if(!existingAuthorOptional.isPresent()){
+        if (Objects.isNull(book.getId())) {
+            throw new IllegalArgumentException("Id null when editing a book.");
+        }
+        if (Objects.isNull(idAuthor)) {
             throw new AuthorNotFoundException();
         }
-        else{
-            if(!existingBookOptional.isPresent()){
-                throw new BookNotFoundException();
-            }
 
-            else{
-                Book editBook = existingBookOptional.get();
-                editBook.setAuthor(existingAuthorOptional.get());
-                editBook.setPages(book.getPages());
-                editBook.setTitle(book.getTitle());
-                editBook.setPublication_year(book.getPublication_year());
-                return bookRepository.save(editBook);
+        Author author = authorRepository.getReferenceById(idAuthor);
+        int updated;
+        try {
+            updated = Objects.isNull(book.getVersion())
+                    ? bookRepository.updateBook(book.getId(), book.getTitle(), book.getPublication_year(),
+                            book.getPages(), author)
+                    : bookRepository.updateBookVersion(book.getId(), book.getTitle(), book.getPublication_year(),
+                            book.getPages(), author, book.getVersion());
+        } catch (DataIntegrityViolationException e) {
+            throw new AuthorNotFoundException(String.format("No author found for id %d", idAuthor));
+        }
+
+        if (updated == 0) {
+            if (Objects.nonNull(book.getVersion()) && bookRepository.existsById(book.getId())) {
+                throw new ObjectOptimisticLockingFailureException(Book.class, book.getId());
             }
+            throw new BookNotFoundException(String.format("No book found for id %d", book.getId()));
         }
+        book.setAuthor(author);
+        if (Objects.nonNull(book.getVersion())) {
+            book.setVersion(book.getVersion() + 1);
+        }
+        eventPublisher.publishEvent(BookChangedEvent.of(ChangeType.UPDATED, book));
+        return book;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "books", key = "#id"),
+            @CacheEvict(cacheNames = "bookTags", key = "#id")
+    })
     public void deleteBook(Integer id, Boolean confirmDeletion) {
         if (confirmDeletion != null && confirmDeletion) {
-            Book book = bookRepository.findById(id)
-                    .orElseThrow(() -> new BookNotFoundException());
-
-            bookRepository.deleteById(id);
+            if (bookRepository.deleteBookById(id) == 0) {
+                throw new BookNotFoundException(String.format("No book found for id %d", id));
+            }
+            eventPublisher.publishEvent(BookChangedEvent.deleted(id));
         } else {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "To delete the book, confirm-deletion must be true.");
         }
     }
+
+    static boolean isValid(Book book) {
+        return Objects.nonNull(book) && Objects.nonNull(book.getTitle())
+                && Objects.nonNull(book.getPages()) && Objects.nonNull(book.getPublication_year());
+    }
 }
@@ -0,0 +1,35 @@
+package br.com.unifalmg.application.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Objects;
+
+/**
+ * Wire formats accepted by the catalog export and import endpoints.
+ */
+@Getter
+@AllArgsConstructor
+public enum CatalogFormat {
+    JSON_LINES("jsonl", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    public static CatalogFormat fromParameter(String parameter) {
+        for (CatalogFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(parameter)) {
+                return format;
+            }
+        }
+        return JSON_LINES;
+    }
+
+    public static CatalogFormat fromContentType(String contentType) {
+        if (Objects.nonNull(contentType) && contentType.toLowerCase().startsWith(CSV.contentType)) {
+            return CSV;
+        }
+        return JSON_LINES;
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.unifalmg.application.service;
+
+import br.com.unifalmg.application.entity.Author;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.metrics.Monitored;
+import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.BookRepository;
+import br.com.unifalmg.application.util.Csv;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog to an output stream one row at a time: every book
+ * with its author, then every author without books, whose book columns are
+ * left empty. Rows are read through fetch-size cursors and detached once
+ * written, so memory use does not grow with the size of the catalog.
+ */
+@Service
+@Monitored
+@AllArgsConstructor
+public class ExportService {
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportBooks(CatalogFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        if (format == CatalogFormat.CSV) {
+            writer.write("id,title,publication_year,pages,author_id,author_first_name,author_last_name,author_nationality\n");
+        }
+
+        long rows = 0;
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                write(format, writer, json, book, book.getAuthor());
+                entityManager.detach(book);
+                entityManager.detach(book.getAuthor());
+                if (++rows % FLUSH_INTERVAL == 0) {
+                    json.flush();
+                    writer.flush();
+                }
+            }
+        }
+        try (Stream<Author> authors = authorRepository.streamWithoutBooks()) {
+            Iterator<Author> iterator = authors.iterator();
+            while (iterator.hasNext()) {
+                Author author = iterator.next();
+                write(format, writer, json, new Book(), author);
+                entityManager.detach(author);
+                if (++rows % FLUSH_INTERVAL == 0) {
+                    json.flush();
+                    writer.flush();
+                }
+            }
+        }
+        json.flush();
+        writer.flush();
+        return rows;
+    }
+
+    private static void write(CatalogFormat format, Writer writer, JsonGenerator json, Book book, Author author)
+            throws IOException {
+        if (format == CatalogFormat.CSV) {
+            writeCsv(writer, book, author);
+        } else {
+            writeJson(json, book, author);
+        }
+    }
+
+    private static void writeJson(JsonGenerator json, Book book, Author author) throws IOException {
+        json.writeStartObject();
+        json.writeObjectField("id", book.getId());
+        json.writeObjectField("title", book.getTitle());
+        json.writeObjectField("publication_year", book.getPublication_year());
+        json.writeObjectField("pages", book.getPages());
+        json.writeObjectField("author_id", author.getId());
+        json.writeObjectField("author_first_name", author.getFirst_name());
+        json.writeObjectField("author_last_name", author.getLast_name());
+        json.writeObjectField("author_nationality", author.getNationality());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsv(Writer writer, Book book, Author author) throws IOException {
+        writer.write(Csv.escape(book.getId()) + ',' + Csv.escape(book.getTitle()) + ','
+                + Csv.escape(book.getPublication_year()) + ',' + Csv.escape(book.getPages()) + ','
+                + Csv.escape(author.getId()) + ',' + Csv.escape(author.getFirst_name()) + ','
+                + Csv.escape(author.getLast_name()) + ',' + Csv.escape(author.getNationality()) + '\n');
+    }
+}
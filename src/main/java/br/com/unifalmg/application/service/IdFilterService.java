@@ -0,0 +1,105 @@
+package br.com.unifalmg.application.service;
+
+import br.com.unifalmg.application.config.IdFilterProperties;
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
+import br.com.unifalmg.application.lookup.IdFilter;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Filters of the existing book and author ids, so lookups of ids that do
+ * not exist (scrapers walking the id space) are answered without a query.
+ * New ids come from the change events; the filters are loaded with an id
+ * scan at startup and rebuilt on a schedule.
+ * <p>
+ * Lookups turned away are counted as catalog.lookup.filtered, tagged
+ * name=book|author.
+ */
+@Log4j2
+@Service
+public class IdFilterService {
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final IdFilterProperties properties;
+    private final IdFilter books;
+    private final IdFilter authors;
+    private final Counter booksFiltered;
+    private final Counter authorsFiltered;
+
+    public IdFilterService(CatalogJdbcRepository catalogJdbcRepository, IdFilterProperties properties,
+                           MeterRegistry registry) {
+        this.catalogJdbcRepository = catalogJdbcRepository;
+        this.properties = properties;
+        this.books = new IdFilter(properties.getFalsePositiveRate());
+        this.authors = new IdFilter(properties.getFalsePositiveRate());
+        this.booksFiltered = Counter.builder("catalog.lookup.filtered").tag("name", "book").register(registry);
+        this.authorsFiltered = Counter.builder("catalog.lookup.filtered").tag("name", "author").register(registry);
+    }
+
+    /** False only when the book certainly does not exist. */
+    public boolean mightHaveBook(Integer id) {
+        return mightHave(books, booksFiltered, id);
+    }
+
+    /** False only when the author certainly does not exist. */
+    public boolean mightHaveAuthor(Integer id) {
+        return mightHave(authors, authorsFiltered, id);
+    }
+
+    private boolean mightHave(IdFilter filter, Counter filtered, Integer id) {
+        if (!properties.isEnabled() || Objects.isNull(id) || filter.mightContain(id)) {
+            return true;
+        }
+        filtered.increment();
+        return false;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() != ChangeType.DELETED) {
+            books.add(event.getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        if (event.getType() != ChangeType.DELETED) {
+            authors.add(event.getId());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Loads both filters again. Rebuilds run one at a time, so the last one
+     * to start is the one that stays.
+     */
+    @Scheduled(fixedDelayString = "${app.id-filter.rebuild-interval:PT10M}",
+            initialDelayString = "${app.id-filter.rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        books.rebuild(ids -> catalogJdbcRepository.scanBookIds(rs -> ids.accept(rs.getInt(1))));
+        authors.rebuild(ids -> catalogJdbcRepository.scanAuthorIds(rs -> ids.accept(rs.getInt(1))));
+        log.info("Filtro de ids carregado: {} livros e {} autores em {} ms",
+                books.size(), authors.size(), System.currentTimeMillis() - start);
+    }
+}
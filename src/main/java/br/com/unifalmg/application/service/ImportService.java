@@ -0,0 +1,245 @@
+package br.com.unifalmg.application.service;
+
+import br.com.unifalmg.application.config.ImportProperties;
+import br.com.unifalmg.application.dto.AuthorImportRow;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.dto.ImportResult;
+import br.com.unifalmg.application.dto.ImportRow;
+import br.com.unifalmg.application.entity.Author;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
+import br.com.unifalmg.application.metrics.Monitored;
+import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.util.Csv;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of books and authors. Uploads are read one row at a time,
+ * checked with the same rules as {@link BookService#add} and
+ * {@link AuthorService#add}, and written in JDBC batches, one transaction
+ * per batch. A change event is published for every inserted row.
+ */
+@Service
+@Monitored
+@AllArgsConstructor
+public class ImportService {
+
+    private final AuthorRepository authorRepository;
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ImportResult importBooks(InputStream in, CatalogFormat format) throws IOException {
+        ImportResult result = new ImportResult(properties.getMaxReportedErrors());
+        List<BookImportRow> batch = new ArrayList<>(properties.getBatchSize());
+        read(in, format, BookImportRow.class, ImportService::toBookRow, result, row -> {
+            Book book = Book.builder()
+                    .title(row.getTitle())
+                    .pages(row.getPages())
+                    .publication_year(row.getPublication_year())
+                    .build();
+            if (!BookService.isValid(book)) {
+                result.reject(row.getLine(), "title, publication_year and pages are required");
+                return;
+            }
+            batch.add(row);
+            if (batch.size() >= properties.getBatchSize()) {
+                writeBooks(batch, result);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            writeBooks(batch, result);
+        }
+        return result;
+    }
+
+    public ImportResult importAuthors(InputStream in, CatalogFormat format) throws IOException {
+        ImportResult result = new ImportResult(properties.getMaxReportedErrors());
+        List<AuthorImportRow> batch = new ArrayList<>(properties.getBatchSize());
+        read(in, format, AuthorImportRow.class, ImportService::toAuthorRow, result, row -> {
+            Author author = Author.builder()
+                    .first_name(row.getFirst_name())
+                    .last_name(row.getLast_name())
+                    .nationality(row.getNationality())
+                    .build();
+            if (!AuthorService.isValid(author)) {
+                result.reject(row.getLine(), "first_name, last_name and nationality are required");
+                return;
+            }
+            batch.add(row);
+            if (batch.size() >= properties.getBatchSize()) {
+                writeAuthors(batch, result);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            writeAuthors(batch, result);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the author references of the whole batch with one query and
+     * inserts the rows whose author exists.
+     */
+    private void writeBooks(List<BookImportRow> batch, ImportResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Integer> authorIds = batch.stream()
+                    .map(BookImportRow::getAuthor_id)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<Integer> existing = authorIds.isEmpty() ? new HashSet<>()
+                    : new HashSet<>(authorRepository.findExistingIds(authorIds));
+            List<BookImportRow> accepted = new ArrayList<>(batch.size());
+            for (BookImportRow row : batch) {
+                if (existing.contains(row.getAuthor_id())) {
+                    accepted.add(row);
+                } else {
+                    result.reject(row.getLine(), String.format("No author found for id %s", row.getAuthor_id()));
+                }
+            }
+            if (!accepted.isEmpty()) {
+                List<Integer> ids = catalogJdbcRepository.insertBooks(accepted);
+                for (int i = 0; i < ids.size(); i++) {
+                    BookImportRow row = accepted.get(i);
+                    eventPublisher.publishEvent(new BookChangedEvent(ChangeType.CREATED, ids.get(i), row.getTitle(),
+                            row.getPublication_year(), row.getPages(), row.getAuthor_id()));
+                }
+                result.imported(accepted.size());
+            }
+        });
+    }
+
+    private void writeAuthors(List<AuthorImportRow> batch, ImportResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Integer> ids = catalogJdbcRepository.insertAuthors(batch);
+            for (int i = 0; i < ids.size(); i++) {
+                AuthorImportRow row = batch.get(i);
+                eventPublisher.publishEvent(new AuthorChangedEvent(ChangeType.CREATED, ids.get(i),
+                        row.getFirst_name(), row.getLast_name(), row.getNationality()));
+            }
+            result.imported(batch.size());
+        });
+    }
+
+    private <T extends ImportRow> void read(InputStream in, CatalogFormat format, Class<T> type,
+                                            Function<Map<String, String>, T> fromCsv,
+                                            ImportResult result, Consumer<T> sink) throws IOException {
+        if (format == CatalogFormat.CSV) {
+            readCsv(in, fromCsv, result, sink);
+        } else {
+            readJson(in, type, result, sink);
+        }
+    }
+
+    private <T extends ImportRow> void readCsv(InputStream in, Function<Map<String, String>, T> fromCsv,
+                                               ImportResult result, Consumer<T> sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (Objects.isNull(headerLine)) {
+            return;
+        }
+        List<String> header = Csv.parseLine(headerLine).stream()
+                .map(column -> column.trim().toLowerCase())
+                .collect(Collectors.toList());
+        long line = 1;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            List<String> fields = Csv.parseLine(text);
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < Math.min(header.size(), fields.size()); i++) {
+                String value = fields.get(i).trim();
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            try {
+                T row = fromCsv.apply(values);
+                row.setLine(line);
+                sink.accept(row);
+            } catch (NumberFormatException e) {
+                result.reject(line, "invalid number " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rows are numbered by record, which is the line of a JSON Lines upload.
+     * A record whose values do not fit the row (e.g. text for a number) is
+     * rejected like a bad CSV row and reading resumes at the next record;
+     * broken JSON syntax ends the upload, since the next record cannot be
+     * found.
+     */
+    private <T extends ImportRow> void readJson(InputStream in, Class<T> type,
+                                                ImportResult result, Consumer<T> sink) throws IOException {
+        long record = 0;
+        try (MappingIterator<T> rows = objectMapper.readerFor(type).readValues(in)) {
+            while (rows.hasNextValue()) {
+                record++;
+                T row;
+                try {
+                    row = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    result.reject(record, e.getOriginalMessage());
+                    continue;
+                }
+                row.setLine(record);
+                sink.accept(row);
+            }
+        } catch (JsonProcessingException e) {
+            result.fail(record, e.getOriginalMessage());
+        }
+    }
+
+    private static BookImportRow toBookRow(Map<String, String> values) {
+        BookImportRow row = new BookImportRow();
+        row.setTitle(values.get("title"));
+        row.setPublication_year(toInteger(values.get("publication_year")));
+        row.setPages(toInteger(values.get("pages")));
+        row.setAuthor_id(toInteger(values.get("author_id")));
+        return row;
+    }
+
+    private static AuthorImportRow toAuthorRow(Map<String, String> values) {
+        AuthorImportRow row = new AuthorImportRow();
+        row.setFirst_name(values.get("first_name"));
+        row.setLast_name(values.get("last_name"));
+        row.setNationality(values.get("nationality"));
+        return row;
+    }
+
+    private static Integer toInteger(String value) {
+        return Objects.isNull(value) ? null : Integer.valueOf(value);
+    }
+}
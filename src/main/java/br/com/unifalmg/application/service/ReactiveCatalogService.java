@@ -0,0 +1,96 @@
+package br.com.unifalmg.application.service;
+
+import br.com.unifalmg.application.dto.AuthorSummary;
+import br.com.unifalmg.application.dto.BookDetail;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.metrics.ServiceMetrics;
+import br.com.unifalmg.application.pagination.KeysetPage;
+import br.com.unifalmg.application.pagination.PageCursor;
+import br.com.unifalmg.application.repository.ReactiveCatalogRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+/**
+ * Non-blocking counterpart of the read side of {@link BookService} and
+ * {@link AuthorService}: the same summaries and keyset pages, but no request
+ * thread waits on the database. A missing book or author is an empty Mono.
+ * Each call is timed by {@link ServiceMetrics#timed} from subscription to
+ * completion.
+ */
+@Service
+@AllArgsConstructor
+public class ReactiveCatalogService {
+
+    private final ReactiveCatalogRepository reactiveCatalogRepository;
+    private final ServiceMetrics metrics;
+
+    public Mono<BookDetail> getBook(Integer id) {
+        return metrics.timed("ReactiveCatalogService.getBook", () -> reactiveCatalogRepository.findBook(id));
+    }
+
+    public Mono<AuthorSummary> getAuthor(Integer id) {
+        return metrics.timed("ReactiveCatalogService.getAuthor", () -> reactiveCatalogRepository.findAuthor(id));
+    }
+
+    public Mono<KeysetPage<BookSummary>> getBooks(String after, String before, Integer size) {
+        return metrics.timed("ReactiveCatalogService.getBooks", () -> booksPage(after, before, size));
+    }
+
+    public Mono<KeysetPage<BookSummary>> getAuthorBooks(Integer authorId, String after, String before,
+                                                        Integer size) {
+        return metrics.timed("ReactiveCatalogService.getAuthorBooks",
+                () -> authorBooksPage(authorId, after, before, size));
+    }
+
+    public Mono<KeysetPage<AuthorSummary>> getAuthors(String after, String before, Integer size) {
+        return metrics.timed("ReactiveCatalogService.getAuthors", () -> authorsPage(after, before, size));
+    }
+
+    private Mono<KeysetPage<BookSummary>> booksPage(String after, String before, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        if (Objects.nonNull(before)) {
+            return reactiveCatalogRepository.findBooksBefore(PageCursor.decode(before).getId(), pageSize + 1)
+                    .collectList()
+                    .map(rows -> KeysetPage.backward(rows, pageSize, book -> PageCursor.encode(book.getId(), null)));
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        return reactiveCatalogRepository.findBooksAfter(afterId, pageSize + 1)
+                .collectList()
+                .map(rows -> KeysetPage.forward(rows, pageSize, Objects.nonNull(after),
+                        book -> PageCursor.encode(book.getId(), null)));
+    }
+
+    private Mono<KeysetPage<BookSummary>> authorBooksPage(Integer authorId, String after, String before,
+                                                          Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        if (Objects.nonNull(before)) {
+            return reactiveCatalogRepository.findAuthorBooksBefore(authorId, PageCursor.decode(before).getId(),
+                            pageSize + 1)
+                    .collectList()
+                    .map(rows -> KeysetPage.backward(rows, pageSize, book -> PageCursor.encode(book.getId(), null)));
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        return reactiveCatalogRepository.findAuthorBooksAfter(authorId, afterId, pageSize + 1)
+                .collectList()
+                .map(rows -> KeysetPage.forward(rows, pageSize, Objects.nonNull(after),
+                        book -> PageCursor.encode(book.getId(), null)));
+    }
+
+    private Mono<KeysetPage<AuthorSummary>> authorsPage(String after, String before, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        if (Objects.nonNull(before)) {
+            return reactiveCatalogRepository.findAuthorsBefore(PageCursor.decode(before).getId(), pageSize + 1)
+                    .collectList()
+                    .map(rows -> KeysetPage.backward(rows, pageSize,
+                            author -> PageCursor.encode(author.getId(), null)));
+        }
+        Integer afterId = Objects.isNull(after) ? 0 : PageCursor.decode(after).getId();
+        return reactiveCatalogRepository.findAuthorsAfter(afterId, pageSize + 1)
+                .collectList()
+                .map(rows -> KeysetPage.forward(rows, pageSize, Objects.nonNull(after),
+                        author -> PageCursor.encode(author.getId(), null)));
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.unifalmg.application.service;
+
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
+import br.com.unifalmg.application.metrics.Monitored;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.search.InvertedIndex;
+import br.com.unifalmg.application.search.SearchHit;
+import br.com.unifalmg.application.search.SearchIndex;
+import br.com.unifalmg.application.search.SearchResults;
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over book titles and author names. The indexes are
+ * loaded from the database at startup and then kept current by the change
+ * events of {@link BookService}, {@link AuthorService} and the bulk import.
+ */
+@Log4j2
+@Service
+@AllArgsConstructor
+public class SearchService {
+
+    public static final int MAX_SIZE = 100;
+    /**
+     * Deepest result reachable by paging; every page ranks all the hits
+     * before it, so deeper pages are refused.
+     */
+    public static final int MAX_RESULTS = 10_000;
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final SearchIndex books = new SearchIndex("book");
+    private final SearchIndex authors = new SearchIndex("author");
+
+    @Monitored
+    public SearchResults search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SIZE));
+        int pageNumber = Math.max(0, page);
+        long reach = (pageNumber + 1L) * pageSize;
+        if (reach > MAX_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Only the first %d results can be paged through.", MAX_RESULTS));
+        }
+        List<String> terms = InvertedIndex.tokenize(query);
+        int limit = (int) reach;
+
+        InvertedIndex.TopHits bookHits = books.search(terms, limit);
+        InvertedIndex.TopHits authorHits = authors.search(terms, limit);
+        List<SearchHit> merged = new ArrayList<>(bookHits.getHits());
+        merged.addAll(authorHits.getHits());
+        List<SearchHit> hits = merged.stream()
+                .sorted(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                        .thenComparing(SearchHit::getType)
+                        .thenComparing(SearchHit::getId))
+                .skip((long) pageNumber * pageSize)
+                .limit(pageSize)
+                .collect(Collectors.toList());
+        return new SearchResults(hits, bookHits.getTotal() + authorHits.getTotal(), pageNumber, pageSize);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        books.rebuild(index -> catalogJdbcRepository.scanBooks(rs ->
+                index.put(rs.getInt("id"), rs.getString("title"), rs.getString("title"))));
+        authors.rebuild(index -> catalogJdbcRepository.scanAuthors(rs ->
+                index.put(rs.getInt("id"), authorLabel(rs.getString("first_name"), rs.getString("last_name")),
+                        rs.getString("first_name"), rs.getString("last_name"), rs.getString("nationality"))));
+        log.info("Índice de busca reconstruído: {} livros e {} autores em {} ms",
+                books.size(), authors.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            books.apply(index -> index.remove(event.getId()));
+        } else {
+            books.apply(index -> index.put(event.getId(), event.getTitle(), event.getTitle()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            authors.apply(index -> index.remove(event.getId()));
+        } else {
+            authors.apply(index -> index.put(event.getId(),
+                    authorLabel(event.getFirst_name(), event.getLast_name()),
+                    event.getFirst_name(), event.getLast_name(), event.getNationality()));
+        }
+    }
+
+    private static String authorLabel(String firstName, String lastName) {
+        return firstName + " " + lastName;
+    }
+}
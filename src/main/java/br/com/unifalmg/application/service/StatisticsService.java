@@ -0,0 +1,185 @@
+package br.com.unifalmg.application.service;
+
+import br.com.unifalmg.application.dto.CatalogStatistics;
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
+import br.com.unifalmg.application.metrics.Monitored;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.statistics.CatalogCounters;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog statistics maintained from the change events of
+ * {@link BookService}, {@link AuthorService} and the bulk import, so reading
+ * them never touches the database. The counters are loaded with one scan at
+ * startup and checked against aggregate queries on a schedule; any drift
+ * (e.g. rows written behind the application's back) triggers a reload.
+ */
+@Log4j2
+@Service
+public class StatisticsService {
+
+    public static final int TOP_AUTHORS = 20;
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private volatile CatalogCounters live = new CatalogCounters();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private CatalogCounters building;
+    private final List<Consumer<CatalogCounters>> replay = new ArrayList<>();
+    // Changes share the read lock so they run concurrently; a reload takes
+    // the write lock only to hand over to the fresh counters.
+    private final ReadWriteLock handover = new ReentrantReadWriteLock();
+
+    @Value
+    private static class Snapshot {
+        long changes;
+        CatalogStatistics statistics;
+    }
+
+    public StatisticsService(CatalogJdbcRepository catalogJdbcRepository) {
+        this.catalogJdbcRepository = catalogJdbcRepository;
+    }
+
+    /**
+     * The last computed statistics, rebuilt from the counters only after a
+     * change. A change during the rebuild bumps the counter the snapshot was
+     * taken at, so a stale snapshot is never kept.
+     */
+    @Monitored
+    public CatalogStatistics getStatistics() {
+        long current = changes.get();
+        Snapshot last = snapshot;
+        if (Objects.nonNull(last) && last.getChanges() == current) {
+            return last.getStatistics();
+        }
+        CatalogStatistics statistics = toStatistics(live);
+        snapshot = new Snapshot(current, statistics);
+        return statistics;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            apply(counters -> counters.removeBook(event.getId()));
+        } else {
+            apply(counters -> counters.putBook(event.getId(), event.getAuthorId(), event.getPages(),
+                    event.getPublication_year()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            apply(counters -> counters.removeAuthor(event.getId()));
+        } else {
+            apply(counters -> counters.putAuthor(event.getId(), event.getNationality()));
+        }
+    }
+
+    private void apply(Consumer<CatalogCounters> change) {
+        handover.readLock().lock();
+        try {
+            change.accept(live);
+            synchronized (replay) {
+                if (Objects.nonNull(building)) {
+                    replay.add(change);
+                }
+            }
+            changes.incrementAndGet();
+        } finally {
+            handover.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the counters from the database. Synchronized because it runs
+     * asynchronously at startup and synchronously from {@link #reconcile()},
+     * and two reloads would overwrite each other's {@code building} target.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        CatalogCounters fresh = new CatalogCounters();
+        synchronized (replay) {
+            building = fresh;
+            replay.clear();
+        }
+        try {
+            catalogJdbcRepository.scanAuthors(rs -> fresh.putAuthor(rs.getInt("id"), rs.getString("nationality")));
+            catalogJdbcRepository.scanBooks(rs -> fresh.putBook(rs.getInt("id"),
+                    (Integer) rs.getObject("author_id"), (Integer) rs.getObject("pages"),
+                    (Integer) rs.getObject("publication_year")));
+        } catch (RuntimeException e) {
+            synchronized (replay) {
+                building = null;
+                replay.clear();
+            }
+            throw e;
+        }
+        handover.writeLock().lock();
+        try {
+            synchronized (replay) {
+                replay.forEach(change -> change.accept(fresh));
+                replay.clear();
+                building = null;
+            }
+            live = fresh;
+            changes.incrementAndGet();
+        } finally {
+            handover.writeLock().unlock();
+        }
+        log.info("Estatísticas carregadas: {} livros e {} autores em {} ms",
+                fresh.getBooks(), fresh.getAuthors(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Compares the counters with aggregate queries and reloads them when they
+     * disagree. A change committed between the queries and the comparison can
+     * cause a needless reload, never a missed one.
+     */
+    @Scheduled(fixedDelayString = "${app.statistics.reconcile-interval:PT10M}",
+            initialDelayString = "${app.statistics.reconcile-interval:PT10M}")
+    public void reconcile() {
+        CatalogCounters counters = live;
+        boolean matches = catalogJdbcRepository.countBooksPerAuthor().equals(counters.getBooksPerAuthor())
+                && catalogJdbcRepository.countBooksPerNationality().equals(counters.getBooksPerNationality())
+                && catalogJdbcRepository.countBooksPerPageBucket().equals(counters.getPageHistogram())
+                && catalogJdbcRepository.countBooksPerDecade().equals(counters.getDecadeHistogram());
+        if (!matches) {
+            log.warn("Estatísticas divergentes do banco, recarregando");
+            reload();
+        }
+    }
+
+    private static CatalogStatistics toStatistics(CatalogCounters counters) {
+        List<CatalogStatistics.AuthorBookCount> topAuthors = counters.getBooksPerAuthor().entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_AUTHORS)
+                .map(entry -> new CatalogStatistics.AuthorBookCount(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        return new CatalogStatistics(counters.getBooks(), counters.getAuthors(), topAuthors,
+                counters.getBooksPerNationality(), counters.getPageHistogram(), counters.getDecadeHistogram());
+    }
+}
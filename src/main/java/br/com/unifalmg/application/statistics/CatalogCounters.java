@@ -0,0 +1,159 @@
+package br.com.unifalmg.application.statistics;
+
+import lombok.Value;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Catalog counters kept current one change at a time. Counters are
+ * {@link LongAdder}s in concurrent maps, so readers never lock. Writers
+ * contend on the same book id, and a book change also holds its author's
+ * entry so it never races a nationality change of that author.
+ *
+ * <p>Updates and deletes only say what a book looks like afterwards, so the
+ * facts each book was counted with are kept here to take it back out of its
+ * old buckets.
+ */
+public class CatalogCounters {
+
+    public static final String UNKNOWN = "unknown";
+    public static final int PAGE_BUCKET = 100;
+    public static final int YEAR_BUCKET = 10;
+
+    @Value
+    private static class BookFacts {
+        Integer authorId;
+        Integer pageBucket;
+        Integer decade;
+    }
+
+    private final Map<Integer, BookFacts> books = new ConcurrentHashMap<>();
+    private final Map<Integer, String> nationalities = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> booksPerAuthor = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> booksPerNationality = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> pageHistogram = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> decadeHistogram = new ConcurrentHashMap<>();
+
+    /** First page count of the bucket, or null when the book has no page count. */
+    public static Integer pageBucket(Integer pages) {
+        return Objects.isNull(pages) ? null : Math.floorDiv(pages, PAGE_BUCKET) * PAGE_BUCKET;
+    }
+
+    public static Integer decade(Integer year) {
+        return Objects.isNull(year) ? null : Math.floorDiv(year, YEAR_BUCKET) * YEAR_BUCKET;
+    }
+
+    public void putBook(Integer id, Integer authorId, Integer pages, Integer year) {
+        BookFacts facts = new BookFacts(authorId, pageBucket(pages), decade(year));
+        books.compute(id, (key, previous) -> {
+            if (Objects.nonNull(previous)) {
+                count(previous, -1);
+            }
+            count(facts, 1);
+            return facts;
+        });
+    }
+
+    public void removeBook(Integer id) {
+        books.computeIfPresent(id, (key, previous) -> {
+            count(previous, -1);
+            return null;
+        });
+    }
+
+    /**
+     * A new or changed nationality moves the author's books between the
+     * nationality buckets; books of an author not seen yet sit in
+     * {@link #UNKNOWN}.
+     */
+    public void putAuthor(Integer id, String nationality) {
+        String next = Objects.isNull(nationality) ? UNKNOWN : nationality;
+        nationalities.compute(id, (key, previous) -> {
+            String from = Objects.isNull(previous) ? UNKNOWN : previous;
+            if (!from.equals(next)) {
+                long authorBooks = valueOf(booksPerAuthor.get(id));
+                add(booksPerNationality, from, -authorBooks);
+                add(booksPerNationality, next, authorBooks);
+            }
+            return next;
+        });
+    }
+
+    public void removeAuthor(Integer id) {
+        nationalities.computeIfPresent(id, (key, previous) -> {
+            long authorBooks = valueOf(booksPerAuthor.get(id));
+            add(booksPerNationality, previous, -authorBooks);
+            add(booksPerNationality, UNKNOWN, authorBooks);
+            return null;
+        });
+    }
+
+    private void count(BookFacts facts, long delta) {
+        if (Objects.isNull(facts.getAuthorId())) {
+            add(booksPerNationality, UNKNOWN, delta);
+        } else {
+            // Under the author's entry, so putAuthor moves either all of the
+            // author's books or none of this change.
+            nationalities.compute(facts.getAuthorId(), (authorId, nationality) -> {
+                add(booksPerAuthor, authorId, delta);
+                add(booksPerNationality, Objects.isNull(nationality) ? UNKNOWN : nationality, delta);
+                return nationality;
+            });
+        }
+        if (Objects.nonNull(facts.getPageBucket())) {
+            add(pageHistogram, facts.getPageBucket(), delta);
+        }
+        if (Objects.nonNull(facts.getDecade())) {
+            add(decadeHistogram, facts.getDecade(), delta);
+        }
+    }
+
+    private static <K> void add(Map<K, LongAdder> counters, K key, long delta) {
+        if (delta != 0) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static long valueOf(LongAdder counter) {
+        return Objects.isNull(counter) ? 0 : counter.sum();
+    }
+
+    public long getBooks() {
+        return books.size();
+    }
+
+    public long getAuthors() {
+        return nationalities.size();
+    }
+
+    public Map<Integer, Long> getBooksPerAuthor() {
+        return nonZero(booksPerAuthor);
+    }
+
+    public Map<String, Long> getBooksPerNationality() {
+        return nonZero(booksPerNationality);
+    }
+
+    public Map<Integer, Long> getPageHistogram() {
+        return nonZero(pageHistogram);
+    }
+
+    public Map<Integer, Long> getDecadeHistogram() {
+        return nonZero(decadeHistogram);
+    }
+
+    private static <K> Map<K, Long> nonZero(Map<K, LongAdder> counters) {
+        Map<K, Long> values = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long value = counter.sum();
+            if (value != 0) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.unifalmg.application.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the
+ * loader, callers arriving while it runs wait for its future and share the
+ * result (or the exception). The future is dropped as soon as the load
+ * ends, so nothing is cached here; a later call loads again.
+ * <p>
+ * Metrics, tagged with the name: catalog.lookup.loads (loader runs),
+ * catalog.lookup.coalesced (calls that shared one) and
+ * catalog.lookup.coalesced.ratio.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry registry) {
+        this.loads = Counter.builder("catalog.lookup.loads").tag("name", name).register(registry);
+        this.coalesced = Counter.builder("catalog.lookup.coalesced").tag("name", name).register(registry);
+        Gauge.builder("catalog.lookup.coalesced.ratio", this, SingleFlight::coalescedRatio)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (Objects.nonNull(running)) {
+            coalesced.increment();
+            return await(running);
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public double coalescedRatio() {
+        double shared = coalesced.count();
+        double total = shared + loads.count();
+        return total == 0 ? 0 : shared / total;
+    }
+
+    /**
+     * Rethrows the loader's own exception, so a waiting caller fails exactly
+     * like the one that ran the load.
+     */
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
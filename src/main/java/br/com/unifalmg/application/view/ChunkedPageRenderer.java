@@ -0,0 +1,46 @@
+package br.com.unifalmg.application.view;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Renders a template straight into the response while its rows are still
+ * being fetched. Nothing holds the whole row list or the whole page: the
+ * template iterates the cursor and the output goes out in chunks, so time to
+ * first byte and heap use do not grow with the number of rows.
+ */
+@Component
+@AllArgsConstructor
+public class ChunkedPageRenderer {
+
+    public static final int CHUNK_ROWS = 500;
+
+    private final SpringTemplateEngine templateEngine;
+
+    public void render(String template, ServletWebRequest request, HttpServletResponse response,
+                       String rowsVariable, Iterator<?> rows, Map<String, Object> model) {
+        try {
+            response.setContentType(RenderedPageCache.HTML.toString());
+            Writer writer = response.getWriter();
+            Map<String, Object> variables = new HashMap<>(model);
+            variables.put(rowsVariable, new FlushingIterator<>(rows, response::flushBuffer, CHUNK_ROWS));
+            WebContext context = new WebContext(request.getRequest(), response,
+                    request.getRequest().getServletContext(), request.getLocale(), variables);
+            templateEngine.process(template, context, writer);
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
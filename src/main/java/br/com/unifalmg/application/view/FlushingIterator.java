@@ -0,0 +1,52 @@
+package br.com.unifalmg.application.view;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+/**
+ * Iterator that flushes the response every {@code chunkRows} rows. Handed to
+ * a {@code th:each}, it makes the template send the table in chunks while the
+ * cursor behind it is still being read.
+ */
+public class FlushingIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> rows;
+    private final Flushable output;
+    private final int chunkRows;
+    private long count;
+
+    public FlushingIterator(Iterator<T> rows, Flushable output, int chunkRows) {
+        this.rows = rows;
+        this.output = output;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Thymeleaf asks for the next row only after writing the previous one, so
+     * flushing here pushes out everything rendered so far.
+     */
+    @Override
+    public boolean hasNext() {
+        if (count > 0 && count % chunkRows == 0) {
+            flush();
+        }
+        return rows.hasNext();
+    }
+
+    @Override
+    public T next() {
+        T row = rows.next();
+        count++;
+        return row;
+    }
+
+    private void flush() {
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.unifalmg.application.view;
+
+import lombok.Value;
+
+@Value
+public class RenderedPage {
+    String html;
+    /**
+     * What producing the page cost (queries and rendering); every cache hit
+     * saves this much.
+     */
+    long buildNanos;
+}
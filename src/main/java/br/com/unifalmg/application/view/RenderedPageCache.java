@@ -0,0 +1,94 @@
+package br.com.unifalmg.application.view;
+
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.CatalogVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Rendered HTML of the list pages, keyed by template, request parameters and
+ * catalog version. Between two writes every request for the same page gets
+ * the same bytes, so only the first one queries and renders. Any committed
+ * change empties the cache; the version in the key keeps a render that raced
+ * with a write from being served afterwards.
+ *
+ * <p>Hit ratio comes with the cache metrics ({@code cache.gets} with
+ * {@code cache=pages}); {@code catalog.page.render} times the misses and
+ * {@code catalog.page.render.saved} adds up the build time of every hit.
+ */
+@Component
+@AllArgsConstructor
+public class RenderedPageCache {
+
+    public static final String CACHE_NAME = "pages";
+    public static final MediaType HTML = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    private final SpringTemplateEngine templateEngine;
+    private final CacheManager cacheManager;
+    private final CatalogVersion catalogVersion;
+    private final MeterRegistry registry;
+
+    public String render(String template, ServletWebRequest request, Supplier<Map<String, Object>> model,
+                         Object... keyParts) {
+        String key = template + "|" + catalogVersion.getTag() + "|" + Arrays.toString(keyParts);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        RenderedPage cached = Objects.isNull(cache) ? null : cache.get(key, RenderedPage.class);
+        if (Objects.nonNull(cached)) {
+            Counter.builder("catalog.page.render.saved")
+                    .baseUnit("seconds")
+                    .tag("template", template)
+                    .register(registry)
+                    .increment(cached.getBuildNanos() / 1e9);
+            return cached.getHtml();
+        }
+
+        long start = System.nanoTime();
+        WebContext context = new WebContext(request.getRequest(), request.getResponse(),
+                request.getRequest().getServletContext(), request.getLocale(), model.get());
+        String html = templateEngine.process(template, context);
+        long buildNanos = System.nanoTime() - start;
+        Timer.builder("catalog.page.render")
+                .tag("template", template)
+                .register(registry)
+                .record(buildNanos, TimeUnit.NANOSECONDS);
+        if (Objects.nonNull(cache)) {
+            cache.put(key, new RenderedPage(html, buildNanos));
+        }
+        return html;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        clear();
+    }
+
+    private void clear() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (Objects.nonNull(cache)) {
+            cache.clear();
+        }
+    }
+}
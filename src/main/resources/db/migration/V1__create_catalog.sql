@@ -0,0 +1,19 @@
+-- Base tables as the JPA mapping created them. Databases that already have
+-- them are baselined at this version (spring.flyway.baseline-on-migrate).
+create table author (
+    id          int          not null auto_increment,
+    first_name  varchar(255),
+    last_name   varchar(255),
+    nationality varchar(255),
+    primary key (id)
+);
+
+create table book (
+    id               int          not null auto_increment,
+    title            varchar(255),
+    publication_year int,
+    pages            int,
+    author_id        int          not null,
+    primary key (id),
+    constraint fk_book_author foreign key (author_id) references author (id)
+);
@@ -0,0 +1,3 @@
+-- Optimistic locking: every row starts at version 0.
+alter table author add column version bigint not null default 0;
+alter table book add column version bigint not null default 0;
@@ -0,0 +1,6 @@
+-- Every listing pages by (key, id), so the id is part of each index and the
+-- keyset predicate and the ORDER BY are both answered by the index.
+create index idx_book_author_id on book (author_id, id);
+create index idx_book_title on book (title, id);
+create index idx_book_publication_year on book (publication_year, id);
+create index idx_author_last_name on author (last_name, id);
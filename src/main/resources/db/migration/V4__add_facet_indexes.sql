@@ -0,0 +1,5 @@
+-- Facet filters of the book listing. A nationality filter finds the authors
+-- through idx_author_nationality and their books through idx_book_author_id;
+-- a page bucket is a range of idx_book_pages.
+create index idx_author_nationality on author (nationality, id);
+create index idx_book_pages on book (pages, id);
@@ -0,0 +1,159 @@
+package br.com.unifalmg.application.integration;
+
+import br.com.unifalmg.application.dto.BookFilter;
+import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.BookRepository;
+import br.com.unifalmg.application.repository.BookSpecifications;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs each hot listing query through its repository method, captures the
+ * SQL Hibernate sends with a recording DataSource proxy, and asks the
+ * embedded database for the plan of exactly that statement against the
+ * schema built by the Flyway migrations. Fails when one of them no longer
+ * picks its index.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryPlanTest {
+
+    private static final List<QueryInfo> QUERIES = new CopyOnWriteArrayList<>();
+    private static final Pageable PAGE = PageRequest.of(0, 21);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .name(beanName)
+                                .afterQuery((execution, queries) -> QUERIES.addAll(queries))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    @DisplayName("#authorBooks > When paging an author's books > Use the author index")
+    void authorBooksUseAuthorIndex() {
+        assertThat(plan(() -> bookRepository.findAuthorPageAfter(1, 0, PAGE)),
+                containsString("idx_book_author_id"));
+    }
+
+    @Test
+    @DisplayName("#books > When sorting by title > Use the title index")
+    void titleOrderUsesTitleIndex() {
+        assertThat(plan(() -> bookRepository.findTitlePageAfter("a", 0, PAGE)),
+                containsString("idx_book_title"));
+    }
+
+    @Test
+    @DisplayName("#books > When filtering by title prefix > Use the title index")
+    void titlePrefixUsesTitleIndex() {
+        assertThat(plan(() -> bookRepository.findTitlePrefixAfter(BookSpecifications.likePrefix("dom"), "dom", 0,
+                PAGE)), containsString("idx_book_title"));
+    }
+
+    @Test
+    @DisplayName("#books > When filtering by year > Use the publication year index")
+    void yearFilterUsesYearIndex() {
+        assertThat(plan(() -> bookRepository.findYearFilterAfter(1899, 0, PAGE)),
+                containsString("idx_book_publication_year"));
+    }
+
+    @Test
+    @DisplayName("#authors > When filtering by last name > Use the last name index")
+    void lastNameFilterUsesLastNameIndex() {
+        assertThat(plan(() -> authorRepository.findLastNameAfter("Assis", 0, PAGE)),
+                containsString("idx_author_last_name"));
+    }
+
+    @Test
+    @DisplayName("#authors > When filtering by nationality > Use the nationality index")
+    void nationalityFilterUsesNationalityIndex() {
+        assertThat(plan(() -> authorRepository.findNationalityAfter("Brazil", 0, PAGE)),
+                containsString("idx_author_nationality"));
+    }
+
+    @Test
+    @DisplayName("#books > When filtering books by nationality > Use the nationality index")
+    void bookNationalityFilterUsesNationalityIndex() {
+        BookFilter filter = BookFilter.of(null, null, "Brazil", null, null, null);
+        assertThat(plan(() -> bookRepository.findFilterPageAfter(BookSpecifications.matching(filter), 0, PAGE)),
+                containsString("idx_author_nationality"));
+    }
+
+    @Test
+    @DisplayName("#books > When filtering by page bucket > Use the pages index")
+    void pageBucketFilterUsesPagesIndex() {
+        BookFilter filter = BookFilter.of(null, null, null, null, null, 100);
+        assertThat(plan(() -> bookRepository.findFilterPageAfter(BookSpecifications.matching(filter), 0, PAGE)),
+                containsString("idx_book_pages"));
+    }
+
+    /**
+     * Plan of the last statement the call sent, with its bound parameters
+     * inlined as literals so the planner sees the values the query ran with.
+     */
+    private String plan(Runnable call) {
+        QUERIES.clear();
+        call.run();
+        assertFalse(QUERIES.isEmpty(), "The call sent no SQL");
+        QueryInfo query = QUERIES.get(QUERIES.size() - 1);
+        List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                ? new ArrayList<>() : new ArrayList<>(query.getParametersList().get(0));
+        parameters.sort(Comparator.comparing(parameter -> (Integer) parameter.getArgs()[0]));
+
+        StringBuilder sql = new StringBuilder();
+        int next = 0;
+        for (char c : query.getQuery().toCharArray()) {
+            if (c == '?') {
+                sql.append(literal(parameters.get(next++).getArgs()[1]));
+            } else {
+                sql.append(c);
+            }
+        }
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).toLowerCase();
+    }
+
+    private static String literal(Object value) {
+        return value instanceof Number ? value.toString() : "'" + value.toString().replace("'", "''") + "'";
+    }
+}
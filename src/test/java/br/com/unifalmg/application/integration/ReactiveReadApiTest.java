@@ -0,0 +1,111 @@
+package br.com.unifalmg.application.integration;
+
+import br.com.unifalmg.application.dto.AuthorImportRow;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reads through the reactive API what was written through JDBC, checking
+ * that both stacks see the same schema.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReactiveReadApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    private Integer author;
+    private List<Integer> books;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from db.book");
+        jdbcTemplate.update("delete from db.author");
+        List<Integer> authors = catalogJdbcRepository.insertAuthors(Arrays.asList(
+                new AuthorImportRow("Machado", "de Assis", "Brazil", 1),
+                new AuthorImportRow("Clarice", "Lispector", "Brazil", 2)));
+        author = authors.get(0);
+        List<BookImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(new BookImportRow("Book " + i, 1900 + i, 100 + i, authors.get(i % 2), i));
+        }
+        books = catalogJdbcRepository.insertBooks(rows);
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/books/{id} > Return the book with its author")
+    void book() throws Exception {
+        performAsync(get("/api/reactive/books/" + books.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Book 0"))
+                .andExpect(jsonPath("$.author.last_name").value("de Assis"));
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/books/{id} > When the book does not exist > Answer 404")
+    void missingBook() throws Exception {
+        performAsync(get("/api/reactive/books/" + (books.get(4) + 1)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/books > Page the books by id")
+    void books() throws Exception {
+        performAsync(get("/api/reactive/books").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(books.get(0)))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/authors/{id}/books > List only that author's books")
+    void authorBooks() throws Exception {
+        performAsync(get("/api/reactive/authors/" + author + "/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[1].title").value("Book 2"));
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/authors > List the authors")
+    void authors() throws Exception {
+        performAsync(get("/api/reactive/authors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[1].first_name").value("Clarice"));
+    }
+}
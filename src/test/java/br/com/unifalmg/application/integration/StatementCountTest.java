@@ -0,0 +1,305 @@
+package br.com.unifalmg.application.integration;
+
+import br.com.unifalmg.application.dto.AuthorImportRow;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.dto.LookupResult;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives every book and author endpoint against an embedded database through
+ * a statement-counting DataSource proxy and fails when a request issues more
+ * SQL statements than its budget. A new lazy load or an extra lookup on one
+ * of these paths shows up here as a failing build.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CatalogJdbcRepository catalogJdbcRepository;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Integer authorWithBooks;
+    private Integer authorWithoutBooks;
+    private List<Integer> books;
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .name(beanName)
+                                .countQuery()
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from db.book");
+        jdbcTemplate.update("delete from db.author");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        List<Integer> authors = catalogJdbcRepository.insertAuthors(Arrays.asList(
+                new AuthorImportRow("Machado", "de Assis", "Brazil", 1),
+                new AuthorImportRow("Clarice", "Lispector", "Brazil", 2),
+                new AuthorImportRow("José", "Saramago", "Portugal", 3)));
+        authorWithBooks = authors.get(0);
+        authorWithoutBooks = authors.get(2);
+        List<BookImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(new BookImportRow("Book " + i, 1900 + i, 100 + i, authors.get(i % 2), i));
+        }
+        books = catalogJdbcRepository.insertBooks(rows);
+    }
+
+    private void assertStatements(long budget, RequestBuilder request) throws Exception {
+        QueryCountHolder.clear();
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        long statements = QueryCountHolder.getGrandTotal().getTotal();
+        assertTrue(statements <= budget,
+                () -> String.format("Request issued %d SQL statements, budget is %d", statements, budget));
+    }
+
+    private void assertRedirectStatements(long budget, RequestBuilder request) throws Exception {
+        QueryCountHolder.clear();
+        mockMvc.perform(request).andExpect(status().is3xxRedirection());
+        long statements = QueryCountHolder.getGrandTotal().getTotal();
+        assertTrue(statements <= budget,
+                () -> String.format("Request issued %d SQL statements, budget is %d", statements, budget));
+    }
+
+    private void assertNotModified(RequestBuilder request) throws Exception {
+        QueryCountHolder.clear();
+        mockMvc.perform(request).andExpect(status().isNotModified());
+        long statements = QueryCountHolder.getGrandTotal().getTotal();
+        assertEquals(0, statements, () -> String.format("304 response issued %d SQL statements", statements));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/books > Load the page with one statement whatever the sort")
+    void bookList() throws Exception {
+        assertStatements(1, get("/api/book/books"));
+        assertStatements(1, get("/api/book/books").param("sort", "title"));
+        assertStatements(1, get("/api/book/books").param("sort", "year").param("size", "100"));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/books > Serve a repeated page from the rendered page cache until the catalog changes")
+    void bookListRenderedCache() throws Exception {
+        assertStatements(1, get("/api/book/books").param("sort", "title"));
+        assertStatements(0, get("/api/book/books").param("sort", "title"));
+
+        mockMvc.perform(get("/api/book/delete/" + books.get(0)).param("confirm-deletion", "true"));
+        mockMvc.perform(get("/api/book/books").param("sort", "title"))
+                .andExpect(content().string(not(containsString("Book 0"))));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/books > With facet filters load the page and its facet counts with two statements")
+    void bookListFacets() throws Exception {
+        assertStatements(2, get("/api/book/books").param("nationality", "Brazil")
+                .param("minYear", "1905").param("pages", "100"));
+        mockMvc.perform(get("/api/book/books").param("nationality", "Brazil").param("minYear", "1905"))
+                .andExpect(content().string(containsString("Book 5")))
+                .andExpect(content().string(not(containsString("Book 4"))));
+        mockMvc.perform(get("/api/book/books").param("nationality", "Portugal"))
+                .andExpect(content().string(not(containsString("Book 0"))));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/books > Combine the year and title filters with the facet filters")
+    void bookListCombinedFilters() throws Exception {
+        assertStatements(2, get("/api/book/books").param("title", "Book"));
+        mockMvc.perform(get("/api/book/books").param("year", "1905").param("nationality", "Brazil"))
+                .andExpect(content().string(containsString("Book 5")))
+                .andExpect(content().string(not(containsString("Book 6"))));
+        mockMvc.perform(get("/api/book/books").param("title", "Book 3").param("pages", "100"))
+                .andExpect(content().string(containsString("Book 3")))
+                .andExpect(content().string(not(containsString("Book 4"))));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/books/all > Stream every book from one cursor")
+    void allBooks() throws Exception {
+        assertStatements(1, get("/api/book/books/all").param("sort", "year"));
+        mockMvc.perform(get("/api/book/books/all"))
+                .andExpect(content().string(containsString("Book 9")));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/{id} > Read the version tag, load the book and its author, then serve from cache")
+    void showBook() throws Exception {
+        assertStatements(2, get("/api/book/" + books.get(0)));
+        assertStatements(0, get("/api/book/" + books.get(0)));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/batch > Load all uncached books with one statement, then serve them from cache")
+    void bookBatch() throws Exception {
+        String ids = books.get(0) + "," + books.get(1) + "," + books.get(2);
+        assertStatements(1, get("/api/book/batch").param("ids", ids));
+        assertStatements(0, get("/api/book/batch").param("ids", ids));
+        mockMvc.perform(get("/api/book/batch").param("ids", books.get(0) + ",0"))
+                .andExpect(jsonPath("$[0].status").value("FOUND"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+        mockMvc.perform(get("/api/book/batch").param("ids", "1,".repeat(LookupResult.MAX_IDS) + "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/author/batch > Load all uncached authors with one statement, then serve them from cache")
+    void authorBatch() throws Exception {
+        String ids = authorWithBooks + "," + authorWithoutBooks;
+        assertStatements(1, get("/api/author/batch").param("ids", ids));
+        assertStatements(0, get("/api/author/batch").param("ids", ids));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/{id} > Answer a matching If-None-Match with 304 without loading the book")
+    void showBookNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/book/" + books.get(0)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        cacheManager.getCache("books").clear();
+        assertNotModified(get("/api/book/" + books.get(0)).header(HttpHeaders.IF_NONE_MATCH, etag));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/books > Answer 304 until the catalog changes")
+    void bookListNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/book/books"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotModified(get("/api/book/books").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        mockMvc.perform(get("/api/book/delete/" + books.get(0)).param("confirm-deletion", "true"));
+        mockMvc.perform(get("/api/book/books").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /api/author/authors > Load the page with one statement")
+    void authorList() throws Exception {
+        assertStatements(1, get("/api/author/authors"));
+    }
+
+    @Test
+    @DisplayName("GET /api/author/authors > Filter by nationality with one statement")
+    void authorListNationality() throws Exception {
+        assertStatements(1, get("/api/author/authors").param("nationality", "Portugal"));
+        mockMvc.perform(get("/api/author/authors").param("nationality", "Portugal"))
+                .andExpect(content().string(containsString("Saramago")))
+                .andExpect(content().string(not(containsString("Lispector"))));
+    }
+
+    @Test
+    @DisplayName("GET /api/author/authors > Serve a repeated page from the rendered page cache")
+    void authorListRenderedCache() throws Exception {
+        assertStatements(1, get("/api/author/authors").param("size", "2"));
+        assertStatements(0, get("/api/author/authors").param("size", "2"));
+    }
+
+    @Test
+    @DisplayName("GET /api/author/{id} > Load the author and one page of books with two statements")
+    void showAuthor() throws Exception {
+        assertStatements(2, get("/api/author/" + authorWithBooks));
+    }
+
+    @Test
+    @DisplayName("POST /api/book/addbook > Check the author and insert the book")
+    void addBook() throws Exception {
+        assertRedirectStatements(2, post("/api/book/addbook")
+                .param("title", "Iracema")
+                .param("publication_year", "1865")
+                .param("pages", "150")
+                .param("idAuthor", authorWithBooks.toString()));
+    }
+
+    @Test
+    @DisplayName("POST /api/book/editBook > Update the book in one statement")
+    void editBook() throws Exception {
+        assertRedirectStatements(1, post("/api/book/editBook")
+                .param("id", books.get(0).toString())
+                .param("title", "Edited")
+                .param("publication_year", "1900")
+                .param("pages", "123")
+                .param("idAuthor", authorWithBooks.toString()));
+    }
+
+    @Test
+    @DisplayName("GET /api/book/delete/{id} > Delete the book in one statement")
+    void deleteBook() throws Exception {
+        assertStatements(1, get("/api/book/delete/" + books.get(0)).param("confirm-deletion", "true"));
+    }
+
+    @Test
+    @DisplayName("POST /api/author/addauthor > Insert the author")
+    void addAuthor() throws Exception {
+        assertRedirectStatements(1, post("/api/author/addauthor")
+                .param("first_name", "Jorge")
+                .param("last_name", "Amado")
+                .param("nationality", "Brazil"));
+    }
+
+    @Test
+    @DisplayName("POST /api/author/editAuthor > Update the author in one statement")
+    void editAuthor() throws Exception {
+        assertRedirectStatements(1, post("/api/author/editAuthor")
+                .param("id", authorWithBooks.toString())
+                .param("first_name", "Joaquim Maria")
+                .param("last_name", "Machado de Assis")
+                .param("nationality", "Brazil"));
+    }
+
+    @Test
+    @DisplayName("GET /api/author/delete/{id} > Delete the author in one statement")
+    void deleteAuthor() throws Exception {
+        assertStatements(1, get("/api/author/delete/" + authorWithoutBooks).param("confirm-deletion", "true"));
+    }
+}
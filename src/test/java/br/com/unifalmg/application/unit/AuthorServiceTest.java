@@ -1,25 +1,43 @@
 package br.com.unifalmg.application.unit;
 
+import br.com.unifalmg.application.config.IdFilterProperties;
+import br.com.unifalmg.application.dto.AuthorSummary;
+import br.com.unifalmg.application.dto.BookSummary;
 import br.com.unifalmg.application.entity.Author;
 import br.com.unifalmg.application.entity.Book;
 import br.com.unifalmg.application.exception.AuthorNotFoundException;
 import br.com.unifalmg.application.exception.InvalidAuthorException;
+import br.com.unifalmg.application.pagination.KeysetPage;
+import br.com.unifalmg.application.pagination.PageCursor;
 import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.BookRepository;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
 import br.com.unifalmg.application.service.AuthorService;
+import br.com.unifalmg.application.service.IdFilterService;
+import br.com.unifalmg.application.util.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.internal.matchers.Null;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +49,21 @@ public class AuthorServiceTest {
     @Mock
     private AuthorRepository repository;
 
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SingleFlight<Integer, Optional<Author>> authorLookups =
+            new SingleFlight<>("author", new SimpleMeterRegistry());
+
+    // Never loaded, so it lets every id through unless a test says otherwise.
+    @Spy
+    private IdFilterService idFilter = new IdFilterService(mock(CatalogJdbcRepository.class),
+            new IdFilterProperties(), new SimpleMeterRegistry());
+
     @Test
     @DisplayName("#getAuthor > When the id is null > Throw an exception")
     void getAuthorWhenTheIdIsNullThrowAnException() {
@@ -71,6 +104,36 @@ public class AuthorServiceTest {
         assertEquals(Collections.emptyList(), service.getAuthors());
     }
 
+    @Test
+    @DisplayName("#getAuthors > When a cursor is given > Return the next page after it")
+    void getAuthorsWhenACursorIsGivenReturnTheNextPageAfterIt() {
+        when(repository.findIdPageAfter(4, PageRequest.of(0, 3))).thenReturn(Arrays.asList(
+                new AuthorSummary(5, "Clarice", "Lispector", "Brazil"),
+                new AuthorSummary(6, "José", "Saramago", "Portugal")));
+        KeysetPage<AuthorSummary> page = service.getAuthors(PageCursor.encode(4, null), null, 2);
+        assertAll(
+                () -> assertEquals(2, page.getContent().size()),
+                () -> assertFalse(page.hasNext()),
+                () -> assertEquals(5, PageCursor.decode(page.getPreviousCursor()).getId())
+        );
+    }
+
+    @Test
+    @DisplayName("#getAuthorBooks > When the author has books > Return a page of them")
+    void getAuthorBooksWhenTheAuthorHasBooksReturnAPageOfThem() {
+        when(bookRepository.findAuthorPageAfter(1, 0, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(
+                        new BookSummary(10, "A", 1900, 100),
+                        new BookSummary(11, "B", 1901, 101),
+                        new BookSummary(12, "C", 1902, 102)));
+        KeysetPage<BookSummary> page = service.getAuthorBooks(1, null, null, 2);
+        assertAll(
+                () -> assertEquals(2, page.getContent().size()),
+                () -> assertEquals(11, PageCursor.decode(page.getNextCursor()).getId()),
+                () -> assertFalse(page.hasPrevious())
+        );
+    }
+
     @Test
     @DisplayName("#deleteAuthor > When confirmationDelete is not True > Throw an exception")
     void deleteAuthorWhenConfirmationDeleteIsFalseThrowAnException(){
@@ -85,7 +148,7 @@ public class AuthorServiceTest {
     @Test
     @DisplayName("#deleteAuthor > When id is invalid > Throw an exception")
     void deleteAuthorWhenIsIsInvalidThrowAnException(){
-        when(repository.findById(50)).thenReturn(Optional.empty());
+        when(repository.deleteAuthorById(50)).thenReturn(0);
         assertThrows(AuthorNotFoundException.class,
                 () -> service.deleteAuthor(50, Boolean.TRUE));
     }
@@ -99,11 +162,11 @@ public class AuthorServiceTest {
                 () -> assertThrows(InvalidAuthorException.class,
                         () -> service.add(author)),
                 () -> assertThrows(InvalidAuthorException.class,
-                        () -> service.add(new Author(1,null, "Silva", "Brazil", books))),
+                        () -> service.add(new Author(1,null, "Silva", "Brazil", books, null))),
                 () -> assertThrows(InvalidAuthorException.class,
-                        () -> service.add(new Author(2,"Pedro", null, "Brazil", books))),
+                        () -> service.add(new Author(2,"Pedro", null, "Brazil", books, null))),
                 () -> assertThrows(InvalidAuthorException.class,
-                        () -> service.add(new Author(3,"Pedro", "Silva", null, books)))
+                        () -> service.add(new Author(3,"Pedro", "Silva", null, books, null)))
         );
     }
 
@@ -111,7 +174,7 @@ public class AuthorServiceTest {
     @DisplayName("#add > When author is add > Return author")
     void addWhenAuthorIsAddReturnAuthor(){
         List<Book> books = null;
-        Author author = new Author(1,"Pedro", "Silva", "Brazil", books);
+        Author author = new Author(1,"Pedro", "Silva", "Brazil", books, null);
         when(repository.save(author)).thenReturn(author);
         Author authorSaved = service.add(author);
         assertAll(
@@ -131,11 +194,11 @@ public class AuthorServiceTest {
                 () -> assertThrows(InvalidAuthorException.class,
                         () -> service.editAuthor(author)),
                 () -> assertThrows(InvalidAuthorException.class,
-                        () -> service.editAuthor(new Author(1,null, "Silva", "Brazil", books))),
+                        () -> service.editAuthor(new Author(1,null, "Silva", "Brazil", books, null))),
                 () -> assertThrows(InvalidAuthorException.class,
-                        () -> service.editAuthor(new Author(2,"Pedro", null, "Brazil", books))),
+                        () -> service.editAuthor(new Author(2,"Pedro", null, "Brazil", books, null))),
                 () -> assertThrows(InvalidAuthorException.class,
-                        () -> service.editAuthor(new Author(3,"Pedro", "Silva", null, books)))
+                        () -> service.editAuthor(new Author(3,"Pedro", "Silva", null, books, null)))
         );
     }
 
@@ -143,10 +206,10 @@ public class AuthorServiceTest {
     @DisplayName("#editAuthor > When author is edited > Return author")
     void editAuthorWhenAuthorIsEditedReturnAuthor(){
         List<Book> books = null;
-        Author author = new Author(1,"Pedro", "Silva", "Brazil", books);
-        when(repository.save(author)).thenReturn(author);
-        when(repository.findById(1)).thenReturn(Optional.of(author));
+        Author author = new Author(1,"Pedro", "Silva", "Brazil", books, null);
+        when(repository.updateAuthor(1, "Pedro", "Silva", "Brazil")).thenReturn(1);
         Author authorSaved = service.editAuthor(author);
+        verify(repository, never()).save(author);
         assertAll(
                 () -> assertEquals(authorSaved.getId(), author.getId()),
                 () -> assertEquals(authorSaved.getFirst_name(), author.getFirst_name()),
@@ -159,9 +222,9 @@ public class AuthorServiceTest {
     @DisplayName("#editAuthor > When author not exist > Is create new author > Return author")
     void editAuthorWhenAuthorNotExistIsCreateNewAuthorReturnAuthor(){
         List<Book> books = null;
-        Author author = new Author(1,"Pedro", "Silva", "Brazil", books);
+        Author author = new Author(1,"Pedro", "Silva", "Brazil", books, null);
+        when(repository.updateAuthor(1, "Pedro", "Silva", "Brazil")).thenReturn(0);
         when(repository.save(author)).thenReturn(author);
-        when(repository.findById(1)).thenReturn(Optional.empty());
         Author authorSaved = service.editAuthor(author);
         assertAll(
                 () -> assertEquals(authorSaved.getId(), author.getId()),
@@ -170,4 +233,14 @@ public class AuthorServiceTest {
                 () -> assertEquals(authorSaved.getNationality(), author.getNationality())
         );
     }
+
+    @Test
+    @DisplayName("#editAuthor > When the version is stale > Throw an exception")
+    void editAuthorWhenTheVersionIsStaleThrowAnException(){
+        Author author = new Author(1,"Pedro", "Silva", "Brazil", null, 3L);
+        when(repository.updateAuthorVersion(1, "Pedro", "Silva", "Brazil", 3L)).thenReturn(0);
+        when(repository.existsById(1)).thenReturn(true);
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.editAuthor(author));
+    }
 }
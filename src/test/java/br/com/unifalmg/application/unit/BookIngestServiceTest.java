@@ -0,0 +1,152 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.config.WriteBehindProperties;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.dto.IngestStatus;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.exception.IngestQueueFullException;
+import br.com.unifalmg.application.exception.InvalidBookException;
+import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.service.BookIngestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookIngestServiceTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookIngestService service(int queueCapacity) {
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setBatchSize(10);
+        return new BookIngestService(authorRepository, catalogJdbcRepository,
+                new TransactionTemplate(transactionManager), eventPublisher, properties, new SimpleMeterRegistry());
+    }
+
+    private static Book book(String title) {
+        return Book.builder().title(title).publication_year(1899).pages(256).build();
+    }
+
+    @Test
+    @DisplayName("#drain > When books are queued > Write them in one batch and report their ids")
+    @SuppressWarnings("unchecked")
+    void drainWhenBooksAreQueuedWriteThemInOneBatchAndReportTheirIds() {
+        BookIngestService service = service(10);
+        IngestStatus first = service.submit(book("Dom Casmurro"), 1);
+        IngestStatus second = service.submit(book("Iracema"), 2);
+        when(authorRepository.findExistingIds(Set.of(1, 2))).thenReturn(List.of(1, 2));
+        when(catalogJdbcRepository.insertBooks(anyList())).thenReturn(List.of(10, 11));
+
+        assertEquals(IngestStatus.State.QUEUED, service.getStatus(first.getToken()).orElseThrow().getState());
+        assertEquals(2, service.drain());
+
+        ArgumentCaptor<List<BookImportRow>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(catalogJdbcRepository).insertBooks(inserted.capture());
+        IngestStatus written = service.getStatus(second.getToken()).orElseThrow();
+        assertAll(
+                () -> assertEquals(2, inserted.getValue().size()),
+                () -> assertEquals(IngestStatus.State.WRITTEN, written.getState()),
+                () -> assertEquals(11, written.getBookId()),
+                () -> assertEquals(0, service.getQueueDepth())
+        );
+    }
+
+    @Test
+    @DisplayName("#drain > When the author does not exist > Reject the book without inserting it")
+    void drainWhenTheAuthorDoesNotExistRejectTheBookWithoutInsertingIt() {
+        BookIngestService service = service(10);
+        IngestStatus status = service.submit(book("Dom Casmurro"), 99);
+        when(authorRepository.findExistingIds(Set.of(99))).thenReturn(List.of());
+
+        service.drain();
+
+        verify(catalogJdbcRepository, never()).insertBooks(anyList());
+        assertEquals(IngestStatus.State.REJECTED, service.getStatus(status.getToken()).orElseThrow().getState());
+    }
+
+    @Test
+    @DisplayName("#drain > When the batch fails > Retry it book by book and fail only the bad one")
+    void drainWhenTheBatchFailsRetryItBookByBookAndFailOnlyTheBadOne() {
+        BookIngestService service = service(10);
+        IngestStatus good = service.submit(book("Dom Casmurro"), 1);
+        IngestStatus bad = service.submit(book("Iracema"), 1);
+        when(authorRepository.findExistingIds(anySet())).thenReturn(List.of(1));
+        when(catalogJdbcRepository.insertBooks(anyList()))
+                .thenThrow(new DataIntegrityViolationException("batch"))
+                .thenReturn(List.of(10))
+                .thenThrow(new DataIntegrityViolationException("row"));
+
+        service.drain();
+
+        verify(catalogJdbcRepository, times(3)).insertBooks(anyList());
+        IngestStatus written = service.getStatus(good.getToken()).orElseThrow();
+        IngestStatus failed = service.getStatus(bad.getToken()).orElseThrow();
+        assertAll(
+                () -> assertEquals(IngestStatus.State.WRITTEN, written.getState()),
+                () -> assertEquals(10, written.getBookId()),
+                () -> assertEquals(IngestStatus.State.FAILED, failed.getState())
+        );
+    }
+
+    @Test
+    @DisplayName("#submit > When the title is longer than its column > Refuse it before queueing")
+    void submitWhenTheTitleIsLongerThanItsColumnRefuseItBeforeQueueing() {
+        BookIngestService service = service(10);
+
+        assertThrows(InvalidBookException.class,
+                () -> service.submit(book("a".repeat(BookIngestService.TITLE_MAX_LENGTH + 1)), 1));
+        assertEquals(0, service.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("#submit > When the queue is full > Refuse the book")
+    void submitWhenTheQueueIsFullRefuseTheBook() {
+        BookIngestService service = service(1);
+        service.submit(book("Dom Casmurro"), 1);
+
+        assertThrows(IngestQueueFullException.class, () -> service.submit(book("Iracema"), 1));
+        assertEquals(1, service.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("#submit > When the book is invalid > Refuse it before queueing")
+    void submitWhenTheBookIsInvalidRefuseItBeforeQueueing() {
+        BookIngestService service = service(10);
+
+        assertThrows(InvalidBookException.class, () -> service.submit(Book.builder().build(), 1));
+        assertEquals(0, service.getQueueDepth());
+    }
+}
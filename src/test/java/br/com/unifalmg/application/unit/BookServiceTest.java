@@ -1,28 +1,58 @@
 package br.com.unifalmg.application.unit;
 
+import br.com.unifalmg.application.dto.BookDetail;
+import br.com.unifalmg.application.config.IdFilterProperties;
+import br.com.unifalmg.application.dto.BookSummary;
+import br.com.unifalmg.application.dto.LookupResult;
 import br.com.unifalmg.application.entity.Author;
 import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
 import br.com.unifalmg.application.exception.AuthorNotFoundException;
 import br.com.unifalmg.application.exception.BookNotFoundException;
 import br.com.unifalmg.application.exception.InvalidBookException;
+import br.com.unifalmg.application.pagination.BookSort;
+import br.com.unifalmg.application.pagination.KeysetPage;
+import br.com.unifalmg.application.pagination.PageCursor;
 import br.com.unifalmg.application.repository.AuthorRepository;
 import br.com.unifalmg.application.repository.BookRepository;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
 import br.com.unifalmg.application.service.AuthorService;
 import br.com.unifalmg.application.service.BookService;
+import br.com.unifalmg.application.service.IdFilterService;
+import br.com.unifalmg.application.util.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 public class BookServiceTest {
@@ -35,6 +65,24 @@ public class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Spy
+    private SingleFlight<Integer, Optional<Book>> bookLookups =
+            new SingleFlight<>("book", new SimpleMeterRegistry());
+
+    // Never loaded, so it lets every id through unless a test says otherwise.
+    @Spy
+    private IdFilterService idFilter = new IdFilterService(mock(CatalogJdbcRepository.class),
+            new IdFilterProperties(), new SimpleMeterRegistry());
+
     @Test
     @DisplayName("#getBook > When the id is null > Throw an exception")
     void getBookWhenTheIdIsNullThrowAnException() {
@@ -68,6 +116,24 @@ public class BookServiceTest {
                 service.getBook(2));
     }
 
+    @Test
+    @DisplayName("#getBook > When the id filter rules the id out > Throw without querying")
+    void getBookWhenTheIdFilterRulesTheIdOutThrowWithoutQuerying() {
+        doReturn(false).when(idFilter).mightHaveBook(7);
+
+        BookNotFoundException thrown = assertThrows(BookNotFoundException.class, () -> service.getBook(7));
+
+        verify(bookRepository, never()).findById(7);
+        assertEquals(0, thrown.getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("#getBookTag > When no book is found > Return null")
+    void getBookTagWhenNoBookIsFoundReturnNull() {
+        when(bookRepository.findTagById(2)).thenReturn(Optional.empty());
+        assertNull(service.getBookTag(2));
+    }
+
     @Test
     @DisplayName("#getBooks > When there are no books > Return empty list")
     void getBooksWhenThereAreNoBooksReturnEmptyList(){
@@ -75,6 +141,60 @@ public class BookServiceTest {
         assertEquals(Collections.emptyList(), service.getBooks());
     }
 
+    @Test
+    @DisplayName("#getBooks > When there are more rows than the page size > Return a page with a next cursor")
+    void getBooksWhenThereAreMoreRowsThanThePageSizeReturnAPageWithANextCursor() {
+        when(bookRepository.findIdPageAfter(0, PageRequest.of(0, 3))).thenReturn(Arrays.asList(
+                new BookSummary(1, "A", 1900, 100),
+                new BookSummary(2, "B", 1901, 101),
+                new BookSummary(3, "C", 1902, 102)));
+        KeysetPage<BookSummary> page = service.getBooks(BookSort.ID, null, null, 2);
+        assertAll(
+                () -> assertEquals(2, page.getContent().size()),
+                () -> assertTrue(page.hasNext()),
+                () -> assertFalse(page.hasPrevious()),
+                () -> assertEquals(2, PageCursor.decode(page.getNextCursor()).getId())
+        );
+    }
+
+    @Test
+    @DisplayName("#getBooks > When paging backwards by title > Return the rows in ascending order")
+    void getBooksWhenPagingBackwardsByTitleReturnTheRowsInAscendingOrder() {
+        String before = PageCursor.encode(7, "D");
+        when(bookRepository.findTitlePageBefore("D", 7, PageRequest.of(0, 3))).thenReturn(Arrays.asList(
+                new BookSummary(5, "C", 1900, 100),
+                new BookSummary(9, "B", 1901, 101)));
+        KeysetPage<BookSummary> page = service.getBooks(BookSort.TITLE, null, before, 2);
+        assertAll(
+                () -> assertEquals(9, page.getContent().get(0).getId()),
+                () -> assertEquals(5, page.getContent().get(1).getId()),
+                () -> assertFalse(page.hasPrevious()),
+                () -> assertEquals("C", PageCursor.decode(page.getNextCursor()).getKey())
+        );
+    }
+
+    @Test
+    @DisplayName("#getBooks > When the cursor is invalid > Throw an exception")
+    void getBooksWhenTheCursorIsInvalidThrowAnException() {
+        assertThrows(ResponseStatusException.class,
+                () -> service.getBooks(BookSort.ID, "not a cursor", null, 2));
+    }
+
+    @Test
+    @DisplayName("#streamBooks > When the consumer returns > Close the cursor")
+    void streamBooksWhenTheConsumerReturnsCloseTheCursor() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookRepository.streamTitleOrder()).thenReturn(Stream.of(
+                new BookSummary(1, "A", 1900, 100),
+                new BookSummary(2, "B", 1901, 101)).onClose(() -> closed.set(true)));
+        List<Integer> seen = new ArrayList<>();
+        service.streamBooks(BookSort.TITLE, rows -> rows.forEachRemaining(book -> seen.add(book.getId())));
+        assertAll(
+                () -> assertEquals(Arrays.asList(1, 2), seen),
+                () -> assertTrue(closed.get())
+        );
+    }
+
     @Test
     @DisplayName("#deleteBook > When confirmationDelete is not True > Throw an exception")
     void deleteBookWhenConfirmationDeleteIsFalseThrowAnException(){
@@ -89,7 +209,7 @@ public class BookServiceTest {
     @Test
     @DisplayName("#deleteBook > When id is invalid > Throw an exception")
     void deleteBookWhenIsIsInvalidThrowAnException(){
-        when(bookRepository.findById(50)).thenReturn(Optional.empty());
+        when(bookRepository.deleteBookById(50)).thenReturn(0);
         assertThrows(BookNotFoundException.class,
                 () -> service.deleteBook(50, Boolean.TRUE));
     }
@@ -103,11 +223,11 @@ public class BookServiceTest {
                 () -> assertThrows(InvalidBookException.class,
                         () -> service.add(book, 1)),
                 () -> assertThrows(InvalidBookException.class,
-                        () -> service.add(new Book(1, null, 1998, 256, author), 1)),
+                        () -> service.add(new Book(1, null, 1998, 256, author, null), 1)),
                 () -> assertThrows(InvalidBookException.class,
-                        () -> service.add(new Book(1, "Harry Potter", null, 256, author), 1)),
+                        () -> service.add(new Book(1, "Harry Potter", null, 256, author, null), 1)),
                 () -> assertThrows(InvalidBookException.class,
-                        () -> service.add(new Book(1, "Harry Potter", 1998, null, author), 1)));
+                        () -> service.add(new Book(1, "Harry Potter", 1998, null, author, null), 1)));
     }
 
     @Test
@@ -127,6 +247,7 @@ public class BookServiceTest {
         when(bookRepository.save(book)).thenReturn(book);
         when(authorRepository.findById(1)).thenReturn(Optional.of(author));
         Book bookSaved = service.add(book, 1);
+        verify(eventPublisher).publishEvent(BookChangedEvent.of(ChangeType.CREATED, book));
         assertAll(
                 () -> assertEquals(bookSaved.getId(), book.getId()),
                 () -> assertEquals(bookSaved.getTitle(), book.getTitle()),
@@ -158,11 +279,11 @@ public class BookServiceTest {
                 () -> assertThrows(InvalidBookException.class,
                         () -> service.editBook(book, 1)),
                 () -> assertThrows(InvalidBookException.class,
-                        () -> service.editBook(new Book(1, null, 1998, 256, author), 1)),
+                        () -> service.editBook(new Book(1, null, 1998, 256, author, null), 1)),
                 () -> assertThrows(InvalidBookException.class,
-                        () -> service.editBook(new Book(1, "Harry Potter", null, 256, author), 1)),
+                        () -> service.editBook(new Book(1, "Harry Potter", null, 256, author, null), 1)),
                 () -> assertThrows(InvalidBookException.class,
-                        () -> service.editBook(new Book(1, "Harry Potter", 1998, null, author), 1)));
+                        () -> service.editBook(new Book(1, "Harry Potter", 1998, null, author, null), 1)));
     }
 
     @Test
@@ -173,22 +294,16 @@ public class BookServiceTest {
                 .first_name("Pedro")
                 .last_name("Silva")
                 .nationality("Brazil").build();
-        Book bookAntigo = Book.builder()
-                .id(1)
-                .title("Harry Potter")
-                .pages(269)
-                .publication_year(1998)
-                .build();
         Book book = Book.builder()
                 .id(1)
                 .title("Harry")
                 .pages(240)
                 .publication_year(1980)
                 .build();
-        when(bookRepository.save(bookAntigo)).thenReturn(bookAntigo);
-        when(bookRepository.findById(1)).thenReturn(Optional.of(bookAntigo));
-        when(authorRepository.findById(1)).thenReturn(Optional.of(author));
+        when(authorRepository.getReferenceById(1)).thenReturn(author);
+        when(bookRepository.updateBook(1, "Harry", 1980, 240, author)).thenReturn(1);
         Book bookSaved = service.editBook(book, 1);
+        verify(eventPublisher).publishEvent(BookChangedEvent.of(ChangeType.UPDATED, book));
         assertAll(
                 () -> assertEquals(bookSaved.getId(), book.getId()),
                 () -> assertEquals(bookSaved.getTitle(), book.getTitle()),
@@ -208,7 +323,10 @@ public class BookServiceTest {
                 .pages(269)
                 .publication_year(1998)
                 .build();
-        when(authorRepository.findById(1)).thenReturn(Optional.empty());
+        Author author = Author.builder().id(1).build();
+        when(authorRepository.getReferenceById(1)).thenReturn(author);
+        when(bookRepository.updateBook(1, "Harry Potter", 1998, 269, author))
+                .thenThrow(new DataIntegrityViolationException("author_id"));
         assertThrows(AuthorNotFoundException.class,
                 () -> service.editBook(book,1));
     }
@@ -228,9 +346,57 @@ public class BookServiceTest {
                 .last_name("Silva")
                 .nationality("Brazil").build();
 
-        when(authorRepository.findById(1)).thenReturn(Optional.of(author));
-        when(bookRepository.findById(1)).thenReturn(Optional.empty());
+        when(authorRepository.getReferenceById(1)).thenReturn(author);
+        when(bookRepository.updateBook(1, "Harry Potter", 1998, 269, author)).thenReturn(0);
         assertThrows(BookNotFoundException.class,
                 () -> service.editBook(book,1));
     }
+
+    @Test
+    @DisplayName("#editBook > When the version is stale > Throw an exception")
+    void editBookWhenTheVersionIsStaleThrowAnException(){
+        Author author = Author.builder().id(1).build();
+        Book book = Book.builder()
+                .id(1)
+                .title("Harry Potter")
+                .pages(269)
+                .publication_year(1998)
+                .version(3L)
+                .build();
+        when(authorRepository.getReferenceById(1)).thenReturn(author);
+        when(bookRepository.updateBookVersion(1, "Harry Potter", 1998, 269, author, 3L)).thenReturn(0);
+        when(bookRepository.existsById(1)).thenReturn(true);
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.editBook(book,1));
+    }
+
+    @Test
+    @DisplayName("#lookupBooks > When some ids are cached and some missing > Load the rest at once and report each id")
+    void lookupBooksWhenSomeIdsAreCachedAndSomeMissingLoadTheRestAtOnceAndReportEachId() {
+        Author author = Author.builder().id(7).first_name("Machado").last_name("de Assis").nationality("Brazil").build();
+        Book cached = Book.builder().id(1).title("Dom Casmurro").pages(256).publication_year(1899).author(author).build();
+        Book loaded = Book.builder().id(2).title("Helena").pages(200).publication_year(1876).author(author).build();
+        when(cacheManager.getCache("books")).thenReturn(cache);
+        when(cache.get(1, Book.class)).thenReturn(cached);
+        when(bookRepository.findAllById(Arrays.asList(2, 3))).thenReturn(Collections.singletonList(loaded));
+
+        List<LookupResult<BookDetail>> results = service.lookupBooks(Arrays.asList(1, 2, 3, 2));
+
+        verify(cache).put(2, loaded);
+        assertAll(
+                () -> assertEquals(Arrays.asList(1, 2, 3),
+                        results.stream().map(LookupResult::getId).collect(Collectors.toList())),
+                () -> assertEquals("Dom Casmurro", results.get(0).getValue().getTitle()),
+                () -> assertEquals("de Assis", results.get(1).getValue().getAuthor().getLast_name()),
+                () -> assertEquals(LookupResult.Status.NOT_FOUND, results.get(2).getStatus()),
+                () -> assertNull(results.get(2).getValue())
+        );
+    }
+
+    @Test
+    @DisplayName("#lookupBooks > When too many ids are asked for > Throw an exception")
+    void lookupBooksWhenTooManyIdsAreAskedForThrowAnException() {
+        List<Integer> ids = IntStream.rangeClosed(1, LookupResult.MAX_IDS + 1).boxed().collect(Collectors.toList());
+        assertThrows(IllegalArgumentException.class, () -> service.lookupBooks(ids));
+    }
 }
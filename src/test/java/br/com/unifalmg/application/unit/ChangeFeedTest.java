@@ -0,0 +1,86 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.config.ChangeFeedProperties;
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeFeed;
+import br.com.unifalmg.application.event.ChangeFeedEvent;
+import br.com.unifalmg.application.event.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedTest {
+
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setHistory(3);
+        feed = new ChangeFeed(properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    private void bookCreated(int id) {
+        feed.onBookChanged(new BookChangedEvent(ChangeType.CREATED, id, "Dom Casmurro", 1899, 256, 1));
+    }
+
+    @Test
+    @DisplayName("#replay > When the last event is still in the history > Return the changes after it in order")
+    void replayWhenTheLastEventIsStillInTheHistoryReturnTheChangesAfterItInOrder() {
+        bookCreated(10);
+        String lastSeen = feed.getLastEventId();
+        feed.onAuthorChanged(AuthorChangedEvent.deleted(1));
+        feed.onBookChanged(BookChangedEvent.deleted(10));
+
+        List<ChangeFeedEvent> missed = feed.replay(lastSeen).orElseThrow();
+
+        assertAll(
+                () -> assertEquals(List.of("author", "book"),
+                        missed.stream().map(ChangeFeedEvent::getName).collect(Collectors.toList())),
+                () -> assertEquals(feed.getLastEventId(), missed.get(1).getId())
+        );
+    }
+
+    @Test
+    @DisplayName("#replay > When the client is up to date > Return no changes")
+    void replayWhenTheClientIsUpToDateReturnNoChanges() {
+        bookCreated(10);
+
+        assertTrue(feed.replay(feed.getLastEventId()).orElseThrow().isEmpty());
+    }
+
+    @Test
+    @DisplayName("#replay > When the missed changes left the history > Ask for a reset")
+    void replayWhenTheMissedChangesLeftTheHistoryAskForAReset() {
+        String lastSeen = feed.getLastEventId();
+        for (int id = 1; id <= 4; id++) {
+            bookCreated(id);
+        }
+
+        assertTrue(feed.replay(lastSeen).isEmpty());
+    }
+
+    @Test
+    @DisplayName("#replay > When the id is from another boot > Ask for a reset")
+    void replayWhenTheIdIsFromAnotherBootAskForAReset() {
+        bookCreated(10);
+
+        assertAll(
+                () -> assertTrue(feed.replay("0-0").isEmpty()),
+                () -> assertTrue(feed.replay("garbage").isEmpty())
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.entity.Author;
+import br.com.unifalmg.application.entity.Book;
+import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.BookRepository;
+import br.com.unifalmg.application.service.CatalogFormat;
+import br.com.unifalmg.application.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceTest {
+
+    private ExportService service;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        service = new ExportService(bookRepository, authorRepository, entityManager, new ObjectMapper());
+        book = Book.builder()
+                .id(1)
+                .title("Dom Casmurro, 2nd ed.")
+                .pages(256)
+                .publication_year(1899)
+                .author(Author.builder()
+                        .id(7)
+                        .first_name("Machado")
+                        .last_name("de Assis")
+                        .nationality("Brazil").build())
+                .build();
+    }
+
+    @Test
+    @DisplayName("#exportBooks > When the format is JSON Lines > Write one object per line and detach the rows")
+    void exportBooksWhenTheFormatIsJsonLinesWriteOneObjectPerLineAndDetachTheRows() throws Exception {
+        when(bookRepository.streamAll()).thenReturn(Stream.of(book));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.exportBooks(CatalogFormat.JSON_LINES, out);
+        assertAll(
+                () -> assertEquals(1, rows),
+                () -> assertEquals("{\"id\":1,\"title\":\"Dom Casmurro, 2nd ed.\",\"publication_year\":1899,"
+                                + "\"pages\":256,\"author_id\":7,\"author_first_name\":\"Machado\","
+                                + "\"author_last_name\":\"de Assis\",\"author_nationality\":\"Brazil\"}\n",
+                        out.toString(StandardCharsets.UTF_8))
+        );
+        verify(entityManager).detach(book);
+        verify(entityManager).detach(book.getAuthor());
+    }
+
+    @Test
+    @DisplayName("#exportBooks > When the format is CSV > Write a header and quote values with separators")
+    void exportBooksWhenTheFormatIsCsvWriteAHeaderAndQuoteValuesWithSeparators() throws Exception {
+        when(bookRepository.streamAll()).thenReturn(Stream.of(book));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportBooks(CatalogFormat.CSV, out);
+        assertEquals("id,title,publication_year,pages,author_id,author_first_name,author_last_name,author_nationality\n"
+                        + "1,\"Dom Casmurro, 2nd ed.\",1899,256,7,Machado,de Assis,Brazil\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("#exportBooks > When an author has no books > Write the author with empty book columns")
+    void exportBooksWhenAnAuthorHasNoBooksWriteTheAuthorWithEmptyBookColumns() throws Exception {
+        Author author = Author.builder().id(8).first_name("Clarice").last_name("Lispector")
+                .nationality("Brazil").build();
+        when(bookRepository.streamAll()).thenReturn(Stream.of(book));
+        when(authorRepository.streamWithoutBooks()).thenReturn(Stream.of(author));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.exportBooks(CatalogFormat.CSV, out);
+        assertAll(
+                () -> assertEquals(2, rows),
+                () -> assertTrue(out.toString(StandardCharsets.UTF_8).endsWith(",,,,8,Clarice,Lispector,Brazil\n"))
+        );
+        verify(entityManager).detach(author);
+    }
+}
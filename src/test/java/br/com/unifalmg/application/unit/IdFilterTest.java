@@ -0,0 +1,46 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.lookup.IdFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdFilterTest {
+
+    private final IdFilter filter = new IdFilter(0.01);
+
+    @Test
+    @DisplayName("#mightContain > Before the first load > Let every id through")
+    void mightContainBeforeTheFirstLoadLetEveryIdThrough() {
+        assertTrue(filter.mightContain(42));
+    }
+
+    @Test
+    @DisplayName("#mightContain > After a load > Keep every loaded id and rule out most others")
+    void mightContainAfterALoadKeepEveryLoadedIdAndRuleOutMostOthers() {
+        filter.rebuild(ids -> IntStream.rangeClosed(1, 10_000).forEach(ids));
+
+        long falsePositives = IntStream.rangeClosed(10_001, 110_000).filter(filter::mightContain).count();
+        assertAll(
+                () -> assertTrue(IntStream.rangeClosed(1, 10_000).allMatch(filter::mightContain)),
+                () -> assertEquals(10_000, filter.size()),
+                () -> assertTrue(falsePositives < 2_000, falsePositives + " false positives")
+        );
+    }
+
+    @Test
+    @DisplayName("#add > When an id is added during a rebuild > Keep it in the new filter")
+    void addWhenAnIdIsAddedDuringARebuildKeepItInTheNewFilter() {
+        filter.rebuild(ids -> IntStream.rangeClosed(1, 100).forEach(ids));
+
+        filter.rebuild(ids -> {
+            IntStream.rangeClosed(1, 100).forEach(ids);
+            filter.add(500);
+        });
+
+        assertTrue(filter.mightContain(500));
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.config.ImportProperties;
+import br.com.unifalmg.application.dto.BookImportRow;
+import br.com.unifalmg.application.dto.ImportResult;
+import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.service.CatalogFormat;
+import br.com.unifalmg.application.service.ImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportServiceTest {
+
+    private ImportService service;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        ImportProperties properties = new ImportProperties();
+        properties.setBatchSize(10);
+        service = new ImportService(authorRepository, catalogJdbcRepository,
+                new TransactionTemplate(transactionManager), new ObjectMapper(), properties, eventPublisher);
+    }
+
+    private static InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("#importBooks > When rows are invalid or reference missing authors > Reject them and insert the rest")
+    @SuppressWarnings("unchecked")
+    void importBooksWhenRowsAreInvalidOrReferenceMissingAuthorsRejectThemAndInsertTheRest() throws Exception {
+        when(authorRepository.findExistingIds(Set.of(1, 99))).thenReturn(Collections.singletonList(1));
+        ImportResult result = service.importBooks(input(
+                "title,publication_year,pages,author_id\n" +
+                "\"Harry Potter, vol. 1\",1998,269,1\n" +
+                ",1998,269,1\n" +
+                "Dom Casmurro,1899,256,99\n" +
+                "Iracema,abc,200,1\n"), CatalogFormat.CSV);
+
+        ArgumentCaptor<List<BookImportRow>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(catalogJdbcRepository).insertBooks(inserted.capture());
+        assertAll(
+                () -> assertEquals(1, result.getImported()),
+                () -> assertEquals(3, result.getRejected()),
+                () -> assertEquals(1, inserted.getValue().size()),
+                () -> assertEquals("Harry Potter, vol. 1", inserted.getValue().get(0).getTitle()),
+                () -> assertEquals(2, inserted.getValue().get(0).getLine())
+        );
+    }
+
+    @Test
+    @DisplayName("#importBooks > When the JSON is malformed > Stop and report the failure")
+    void importBooksWhenTheJsonIsMalformedStopAndReportTheFailure() throws Exception {
+        ImportResult result = service.importBooks(input("{\"title\": "), CatalogFormat.JSON_LINES);
+        assertAll(
+                () -> assertNotNull(result.getFailure()),
+                () -> assertEquals(0, result.getImported())
+        );
+        verify(catalogJdbcRepository, never()).insertBooks(anyList());
+    }
+
+    @Test
+    @DisplayName("#importBooks > When a JSON record has a value of the wrong type > Reject only that record")
+    void importBooksWhenAJsonRecordHasAValueOfTheWrongTypeRejectOnlyThatRecord() throws Exception {
+        when(authorRepository.findExistingIds(Set.of(1))).thenReturn(List.of(1));
+        when(catalogJdbcRepository.insertBooks(anyList())).thenReturn(List.of(10));
+
+        ImportResult result = service.importBooks(input(
+                "{\"title\":\"Iracema\",\"publication_year\":\"soon\",\"pages\":160,\"author_id\":1}\n" +
+                "{\"title\":\"Dom Casmurro\",\"publication_year\":1899,\"pages\":256,\"author_id\":1}\n"),
+                CatalogFormat.JSON_LINES);
+        assertAll(
+                () -> assertNull(result.getFailure()),
+                () -> assertEquals(1, result.getImported()),
+                () -> assertEquals(1, result.getRejected()),
+                () -> assertTrue(result.getErrors().get(0).startsWith("line 1:"))
+        );
+    }
+
+    @Test
+    @DisplayName("#importAuthors > When the upload is JSON Lines > Insert the valid authors")
+    void importAuthorsWhenTheUploadIsJsonLinesInsertTheValidAuthors() throws Exception {
+        ImportResult result = service.importAuthors(input(
+                "{\"first_name\":\"Machado\",\"last_name\":\"de Assis\",\"nationality\":\"Brazil\"}\n" +
+                "{\"first_name\":\"Jorge\",\"nationality\":\"Brazil\"}\n"), CatalogFormat.JSON_LINES);
+        assertAll(
+                () -> assertEquals(1, result.getImported()),
+                () -> assertEquals(1, result.getRejected()),
+                () -> assertEquals("line 2: first_name, last_name and nationality are required",
+                        result.getErrors().get(0))
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.datasource.ReplicaRoutingDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes against embedded databases that only differ in the name stored in
+ * their node table, so every query tells which instance answered it.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+        jdbcTemplate.update("delete from node");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    private static class Routing {
+        final ReplicaRoutingDataSource routing;
+        final JdbcTemplate jdbcTemplate;
+        final TransactionTemplate reads;
+        final TransactionTemplate writes;
+
+        Routing(ReplicaRoutingDataSource routing) {
+            this.routing = routing;
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.reads = new TransactionTemplate(transactionManager);
+            this.reads.setReadOnly(true);
+            this.writes = new TransactionTemplate(transactionManager);
+        }
+
+        String read() {
+            return reads.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+
+        String write() {
+            return writes.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+    }
+
+    @Test
+    @DisplayName("#determineCurrentLookupKey > When the transaction is read-only > Use the replica")
+    void whenTheTransactionIsReadOnlyUseTheReplica() {
+        Routing routing = new Routing(new ReplicaRoutingDataSource(database("primary1"),
+                Collections.singletonList(database("replica1")), Duration.ZERO));
+        assertAll(
+                () -> assertEquals("replica1", routing.read()),
+                () -> assertEquals("primary1", routing.write())
+        );
+    }
+
+    @Test
+    @DisplayName("#determineCurrentLookupKey > When there are two replicas > Alternate between them")
+    void whenThereAreTwoReplicasAlternateBetweenThem() {
+        Routing routing = new Routing(new ReplicaRoutingDataSource(database("primary2"),
+                Arrays.asList(database("replica2a"), database("replica2b")), Duration.ZERO));
+        Set<String> seen = new HashSet<>(Arrays.asList(routing.read(), routing.read()));
+        assertEquals(new HashSet<>(Arrays.asList("replica2a", "replica2b")), seen);
+    }
+
+    @Test
+    @DisplayName("#checkReplicas > When a replica is down > Read from the primary")
+    void whenAReplicaIsDownReadFromThePrimary() {
+        DataSource broken = new JdbcDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("replica down");
+            }
+        };
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(database("primary3"),
+                Collections.singletonList(broken), Duration.ZERO);
+        dataSource.checkReplicas(1);
+        Routing routing = new Routing(dataSource);
+        assertAll(
+                () -> assertTrue(dataSource.getHealthyReplicas().isEmpty()),
+                () -> assertEquals("primary3", routing.read())
+        );
+    }
+
+    @Test
+    @DisplayName("#determineCurrentLookupKey > Within the read-your-writes window > Read from the primary")
+    void withinTheReadYourWritesWindowReadFromThePrimary() {
+        Routing routing = new Routing(new ReplicaRoutingDataSource(database("primary4"),
+                Collections.singletonList(database("replica4")), Duration.ofMinutes(1)));
+        assertEquals("replica4", routing.read());
+        routing.write();
+        assertEquals("primary4", routing.read());
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.search.SearchResults;
+import br.com.unifalmg.application.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchServiceTest {
+
+    @InjectMocks
+    private SearchService service;
+
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @BeforeEach
+    void setUp() {
+        service.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 1, "Harry Potter e a Pedra Filosofal", 1998, 269, 1));
+        service.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 2, "Harry Potter e a Câmara Secreta", 1999, 288, 1));
+        service.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 3, "Dom Casmurro", 1899, 256, 2));
+        service.onAuthorChanged(new AuthorChangedEvent(ChangeType.CREATED, 2, "Machado", "de Assis", "Brazil"));
+    }
+
+    @Test
+    @DisplayName("#search > When every term matches > Return the matching documents")
+    void searchWhenEveryTermMatchesReturnTheMatchingDocuments() {
+        SearchResults results = service.search("harry camara", 0, 10);
+        assertAll(
+                () -> assertEquals(1, results.getTotal()),
+                () -> assertEquals(2, results.getHits().get(0).getId()),
+                () -> assertEquals("book", results.getHits().get(0).getType())
+        );
+    }
+
+    @Test
+    @DisplayName("#search > When the last term is a prefix > Match authors and books")
+    void searchWhenTheLastTermIsAPrefixMatchAuthorsAndBooks() {
+        SearchResults results = service.search("mach", 0, 10);
+        assertAll(
+                () -> assertEquals(1, results.getTotal()),
+                () -> assertEquals("author", results.getHits().get(0).getType()),
+                () -> assertEquals("Machado de Assis", results.getHits().get(0).getLabel())
+        );
+    }
+
+    @Test
+    @DisplayName("#search > When results span pages > Return only the requested page")
+    void searchWhenResultsSpanPagesReturnOnlyTheRequestedPage() {
+        SearchResults results = service.search("potter", 1, 1);
+        assertAll(
+                () -> assertEquals(2, results.getTotal()),
+                () -> assertEquals(1, results.getHits().size()),
+                () -> assertFalse(results.hasNext()),
+                () -> assertTrue(results.hasPrevious())
+        );
+    }
+
+    @Test
+    @DisplayName("#onBookChanged > When a book is updated or deleted > Reflect it in the results")
+    void onBookChangedWhenABookIsUpdatedOrDeletedReflectItInTheResults() {
+        service.onBookChanged(new BookChangedEvent(ChangeType.UPDATED, 3, "Memórias Póstumas", 1881, 300, 2));
+        service.onBookChanged(BookChangedEvent.deleted(1));
+        assertAll(
+                () -> assertEquals(0, service.search("casmurro", 0, 10).getTotal()),
+                () -> assertEquals(1, service.search("memorias", 0, 10).getTotal()),
+                () -> assertEquals(1, service.search("potter", 0, 10).getTotal())
+        );
+    }
+
+    @Test
+    @DisplayName("#search > When the page is beyond the deepest result > Refuse it")
+    void searchWhenThePageIsBeyondTheDeepestResultRefuseIt() {
+        ResponseStatusException thrown = assertThrows(ResponseStatusException.class,
+                () -> service.search("harry", 10_000_000, 100));
+        assertEquals(HttpStatus.BAD_REQUEST, thrown.getStatus());
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.config.IdFilterProperties;
+import br.com.unifalmg.application.exception.BookNotFoundException;
+import br.com.unifalmg.application.metrics.ServiceMetrics;
+import br.com.unifalmg.application.metrics.ServiceMetricsAspect;
+import br.com.unifalmg.application.repository.AuthorRepository;
+import br.com.unifalmg.application.repository.BookRepository;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.service.BookService;
+import br.com.unifalmg.application.service.IdFilterService;
+import br.com.unifalmg.application.util.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ServiceMetricsAspectTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    private SimpleMeterRegistry registry;
+    private BookService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new BookService(authorRepository, bookRepository, eventPublisher, new NoOpCacheManager(),
+                        new SingleFlight<>("book", registry),
+                        new IdFilterService(catalogJdbcRepository, new IdFilterProperties(), registry)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(new ServiceMetrics(registry)));
+        service = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("#time > When the service throws not found > Time the call and count the error by outcome")
+    void timeWhenTheServiceThrowsNotFoundTimeTheCallAndCountTheErrorByOutcome() {
+        when(bookRepository.findById(2)).thenReturn(Optional.empty());
+        assertThrows(BookNotFoundException.class, () -> service.getBook(2));
+        assertAll(
+                () -> assertEquals(1, registry.get("catalog.service")
+                        .tag("operation", "BookService.getBook")
+                        .tag("outcome", "not_found")
+                        .timer().count()),
+                () -> assertEquals(1.0, registry.get("catalog.service.errors")
+                        .tag("outcome", "not_found")
+                        .counter().count())
+        );
+    }
+
+    @Test
+    @DisplayName("#time > When the service throws invalid > Tag the outcome as invalid")
+    void timeWhenTheServiceThrowsInvalidTagTheOutcomeAsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> service.getBook(null));
+        assertEquals(1, registry.get("catalog.service")
+                .tag("operation", "BookService.getBook")
+                .tag("outcome", "invalid")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("#time > When the method is not a monitored operation > Leave it untimed")
+    void timeWhenTheMethodIsNotAMonitoredOperationLeaveItUntimed() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new IdFilterService(catalogJdbcRepository, new IdFilterProperties(), registry));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(new ServiceMetrics(registry)));
+        IdFilterService idFilter = factory.getProxy();
+
+        assertTrue(idFilter.mightHaveBook(1));
+        assertNull(registry.find("catalog.service").timer());
+    }
+
+    @Test
+    @DisplayName("#timed > When the Mono fails after subscription > Time it from subscription and tag the outcome")
+    void timedWhenTheMonoFailsAfterSubscriptionTimeItFromSubscriptionAndTagTheOutcome() {
+        Mono<Object> mono = new ServiceMetrics(registry).timed("ReactiveCatalogService.getBook",
+                () -> Mono.error(new IllegalArgumentException("Id null.")));
+
+        assertNull(registry.find("catalog.service").timer());
+        assertThrows(IllegalArgumentException.class, mono::block);
+        assertAll(
+                () -> assertEquals(1, registry.get("catalog.service")
+                        .tag("operation", "ReactiveCatalogService.getBook")
+                        .tag("outcome", "invalid")
+                        .timer().count()),
+                () -> assertEquals(1.0, registry.get("catalog.service.errors")
+                        .tag("outcome", "invalid")
+                        .counter().count())
+        );
+    }
+}
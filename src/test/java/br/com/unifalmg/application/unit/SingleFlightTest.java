@@ -0,0 +1,124 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.util.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private SimpleMeterRegistry registry;
+    private SingleFlight<Integer, String> lookups;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        lookups = new SingleFlight<>("book", registry);
+        callers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    /**
+     * Runs four callers for the same key while the first load is held open,
+     * so the other three have to find it in flight.
+     */
+    private List<Future<String>> concurrentCalls(AtomicInteger loads, RuntimeException failure)
+            throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        results.add(callers.submit(() -> lookups.execute(1, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            if (failure != null) {
+                throw failure;
+            }
+            return "Dom Casmurro";
+        })));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            results.add(callers.submit(() -> lookups.execute(1, () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        while (registry.get("catalog.lookup.coalesced").counter().count() < 3) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("#execute > When the key is already loading > Share the running load")
+    void executeWhenTheKeyIsAlreadyLoadingShareTheRunningLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Future<String>> results = concurrentCalls(loads, null);
+
+        for (Future<String> result : results) {
+            assertEquals("Dom Casmurro", result.get(5, TimeUnit.SECONDS));
+        }
+        assertAll(
+                () -> assertEquals(1, loads.get()),
+                () -> assertEquals(0.75, registry.get("catalog.lookup.coalesced.ratio")
+                        .tag("name", "book").gauge().value())
+        );
+    }
+
+    @Test
+    @DisplayName("#execute > When the shared load fails > Throw its exception to every caller")
+    void executeWhenTheSharedLoadFailsThrowItsExceptionToEveryCaller() throws Exception {
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        List<Future<String>> results = concurrentCalls(new AtomicInteger(), failure);
+
+        for (Future<String> result : results) {
+            ExecutionException thrown = assertThrows(ExecutionException.class,
+                    () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("#execute > When the load finished > Load again on the next call")
+    void executeWhenTheLoadFinishedLoadAgainOnTheNextCall() {
+        AtomicInteger loads = new AtomicInteger();
+
+        lookups.execute(1, () -> "Dom Casmurro " + loads.incrementAndGet());
+        lookups.execute(1, () -> "Dom Casmurro " + loads.incrementAndGet());
+
+        assertAll(
+                () -> assertEquals(2, loads.get()),
+                () -> assertEquals(0.0, lookups.coalescedRatio())
+        );
+    }
+}
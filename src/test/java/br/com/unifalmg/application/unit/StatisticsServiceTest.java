@@ -0,0 +1,112 @@
+package br.com.unifalmg.application.unit;
+
+import br.com.unifalmg.application.dto.CatalogStatistics;
+import br.com.unifalmg.application.event.AuthorChangedEvent;
+import br.com.unifalmg.application.event.BookChangedEvent;
+import br.com.unifalmg.application.event.ChangeType;
+import br.com.unifalmg.application.repository.CatalogJdbcRepository;
+import br.com.unifalmg.application.service.StatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StatisticsServiceTest {
+
+    @InjectMocks
+    private StatisticsService service;
+
+    @Mock
+    private CatalogJdbcRepository catalogJdbcRepository;
+
+    @BeforeEach
+    void setUp() {
+        service.onAuthorChanged(new AuthorChangedEvent(ChangeType.CREATED, 1, "J. K.", "Rowling", "England"));
+        service.onAuthorChanged(new AuthorChangedEvent(ChangeType.CREATED, 2, "Machado", "de Assis", "Brazil"));
+        service.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 1, "Harry Potter e a Pedra Filosofal", 1997, 223, 1));
+        service.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 2, "Harry Potter e a Câmara Secreta", 1998, 251, 1));
+        service.onBookChanged(new BookChangedEvent(ChangeType.CREATED, 3, "Dom Casmurro", 1899, 256, 2));
+    }
+
+    @Test
+    @DisplayName("#getStatistics > When books were added > Count them per author, nationality and bucket")
+    void getStatisticsWhenBooksWereAddedCountThemPerAuthorNationalityAndBucket() {
+        CatalogStatistics statistics = service.getStatistics();
+        assertAll(
+                () -> assertEquals(3, statistics.getBooks()),
+                () -> assertEquals(2, statistics.getAuthors()),
+                () -> assertEquals(1, statistics.getTopAuthors().get(0).getAuthorId()),
+                () -> assertEquals(2, statistics.getTopAuthors().get(0).getBooks()),
+                () -> assertEquals(2L, statistics.getBooksPerNationality().get("England")),
+                () -> assertEquals(3L, statistics.getPageHistogram().get(200)),
+                () -> assertEquals(2L, statistics.getDecadeHistogram().get(1990))
+        );
+    }
+
+    @Test
+    @DisplayName("#onBookChanged > When a book is edited or deleted > Move it out of its old buckets")
+    void onBookChangedWhenABookIsEditedOrDeletedMoveItOutOfItsOldBuckets() {
+        service.onBookChanged(new BookChangedEvent(ChangeType.UPDATED, 3, "Dom Casmurro", 1900, 256, 1));
+        service.onBookChanged(BookChangedEvent.deleted(1));
+        CatalogStatistics statistics = service.getStatistics();
+        assertAll(
+                () -> assertEquals(2, statistics.getBooks()),
+                () -> assertEquals(Collections.singletonMap("England", 2L), statistics.getBooksPerNationality()),
+                () -> assertEquals(1L, statistics.getDecadeHistogram().get(1990)),
+                () -> assertEquals(1L, statistics.getDecadeHistogram().get(1900)),
+                () -> assertNull(statistics.getDecadeHistogram().get(1890))
+        );
+    }
+
+    @Test
+    @DisplayName("#onAuthorChanged > When the nationality changes > Move the author's books")
+    void onAuthorChangedWhenTheNationalityChangesMoveTheAuthorsBooks() {
+        service.onAuthorChanged(new AuthorChangedEvent(ChangeType.UPDATED, 1, "J. K.", "Rowling", "Scotland"));
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("Brazil", 1L);
+        expected.put("Scotland", 2L);
+        assertEquals(expected, service.getStatistics().getBooksPerNationality());
+    }
+
+    @Test
+    @DisplayName("#reconcile > When the database agrees > Keep the counters")
+    void reconcileWhenTheDatabaseAgreesKeepTheCounters() {
+        Map<Integer, Long> perAuthor = new HashMap<>();
+        perAuthor.put(1, 2L);
+        perAuthor.put(2, 1L);
+        Map<String, Long> perNationality = new HashMap<>();
+        perNationality.put("England", 2L);
+        perNationality.put("Brazil", 1L);
+        Map<Integer, Long> perDecade = new HashMap<>();
+        perDecade.put(1990, 2L);
+        perDecade.put(1890, 1L);
+        when(catalogJdbcRepository.countBooksPerAuthor()).thenReturn(perAuthor);
+        when(catalogJdbcRepository.countBooksPerNationality()).thenReturn(perNationality);
+        when(catalogJdbcRepository.countBooksPerPageBucket()).thenReturn(Collections.singletonMap(200, 3L));
+        when(catalogJdbcRepository.countBooksPerDecade()).thenReturn(perDecade);
+        service.reconcile();
+        verify(catalogJdbcRepository, never()).scanBooks(any());
+    }
+
+    @Test
+    @DisplayName("#reconcile > When the database disagrees > Reload the counters")
+    void reconcileWhenTheDatabaseDisagreesReloadTheCounters() {
+        when(catalogJdbcRepository.countBooksPerAuthor()).thenReturn(Collections.singletonMap(1, 5L));
+        service.reconcile();
+        assertEquals(0, service.getStatistics().getBooks());
+    }
+}